@@ -2,9 +2,11 @@ package com.ing.store_management;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
-@SpringBootApplication
+// R2DBC is used only through ProductReactiveRepository; an auto-configured ConnectionFactory would replace the DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableJpaAuditing
 public class StoreManagementApplication {
 
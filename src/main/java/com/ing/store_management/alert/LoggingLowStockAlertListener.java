@@ -0,0 +1,21 @@
+package com.ing.store_management.alert;
+
+import com.ing.store_management.dto.LowStockAlertDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class LoggingLowStockAlertListener implements LowStockAlertListener {
+
+    @Override
+    public void alertRaised(LowStockAlertDto alert) {
+        log.warn("Low stock: product {} ({}) is at {} units, threshold {}", alert.getProductId(), alert.getCategory(),
+                alert.getQuantity(), alert.getLowLevel());
+    }
+
+    @Override
+    public void alertCleared(LowStockAlertDto alert) {
+        log.info("Low stock cleared: product {} is back at {} units", alert.getProductId(), alert.getClearedQuantity());
+    }
+}
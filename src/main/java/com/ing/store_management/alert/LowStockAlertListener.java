@@ -0,0 +1,15 @@
+package com.ing.store_management.alert;
+
+import com.ing.store_management.dto.LowStockAlertDto;
+
+/**
+ * Notified when a product's stock alert opens or clears. Beans implementing this are picked up automatically
+ * and called on the low-stock evaluator thread, so they should hand slow work off rather than block it.
+ */
+public interface LowStockAlertListener {
+
+    void alertRaised(LowStockAlertDto alert);
+
+    default void alertCleared(LowStockAlertDto alert) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.ing.store_management.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ing.store_management.dto.ProductDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of product DTOs. Caffeine's W-TinyLFU eviction keeps the hottest ids resident.
+ */
+@Component
+@Slf4j
+public class ProductCache implements MeterBinder {
+
+    public static final String CACHE_NAME = "products";
+
+    private final Cache<Long, ProductDto> cache;
+    // Bumped before every invalidation so a bulk load that overlapped one does not cache what it read
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductCache(@Value("${app.cache.products.max-size:10000}") long maxSize,
+                        @Value("${app.cache.products.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        log.info("Product cache initialized with max size: {}, TTL: {}", maxSize, ttl);
+    }
+
+    public ProductDto get(Long id, Function<Long, ProductDto> loader) {
+        return cache.get(id, loader);
+    }
+
+    public ProductDto getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Returns the cached entries for {@code ids}, calling {@code loader} once with only the missing ids.
+     * Ids the loader does not return are absent from the result and are not cached. Loaded entries are
+     * returned but not cached when any invalidation happened while they were loading, since they may have
+     * been read before the change that caused it.
+     */
+    public Map<Long, ProductDto> getAll(Collection<Long> ids, Function<Set<Long>, Map<Long, ProductDto>> loader) {
+        Map<Long, ProductDto> found = new HashMap<>(cache.getAllPresent(ids));
+        Set<Long> missing = new HashSet<>(ids);
+        missing.removeAll(found.keySet());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        long generation = invalidations.get();
+        Map<Long, ProductDto> loaded = loader.apply(Set.copyOf(missing));
+        loaded.forEach((id, product) -> {
+            // Checked under the entry's lock: an invalidation bumps the counter before removing the key, so it
+            // either stops this insert or removes the entry right after it
+            cache.asMap().computeIfAbsent(id, key -> invalidations.get() == generation ? product : null);
+            found.put(id, product);
+        });
+        return found;
+    }
+
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        invalidations.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+}
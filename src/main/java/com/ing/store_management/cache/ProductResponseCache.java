@@ -0,0 +1,77 @@
+package com.ing.store_management.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.util.EntityTags;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Pre-serialized JSON of the most requested products, so polling reads skip Jackson entirely.
+ * Uses the application's ObjectMapper, so the bytes match what the message converters would write.
+ */
+@Component
+@Slf4j
+public class ProductResponseCache implements MeterBinder {
+
+    public static final String CACHE_NAME = "product-responses";
+
+    private final Cache<Long, SerializedProduct> cache;
+    private final ObjectMapper objectMapper;
+
+    public record SerializedProduct(byte[] json, String etag) {
+    }
+
+    public ProductResponseCache(ObjectMapper objectMapper,
+                                @Value("${app.cache.product-responses.max-size:1000}") long maxSize,
+                                @Value("${app.cache.product-responses.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        log.info("Product response cache initialized with max size: {}, TTL: {}", maxSize, ttl);
+    }
+
+    public SerializedProduct get(Long id, Function<Long, ProductDto> loader) {
+        return cache.get(id, key -> serialize(loader.apply(key)));
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private SerializedProduct serialize(ProductDto product) {
+        try {
+            return new SerializedProduct(objectMapper.writeValueAsBytes(product), EntityTags.fromVersion(product.getVersion()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to serialize product " + product.getId(), e);
+        }
+    }
+}
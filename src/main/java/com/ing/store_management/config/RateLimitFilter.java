@@ -0,0 +1,169 @@
+package com.ing.store_management.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ing.store_management.exception.ErrorResponse;
+import com.ing.store_management.security.JwtPrincipal;
+import com.ing.store_management.security.JwtUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limits per route, keyed by client address on the auth endpoints and by token subject
+ * elsewhere. Runs ahead of {@link com.ing.store_management.security.JwtAuthenticationFilter}, so a refused
+ * login never reaches BCrypt. Buckets live in a bounded Caffeine cache per route and are dropped once idle
+ * long enough to have refilled; a client spraying keys competes for cache admission with real clients
+ * instead of growing memory.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String IP_KEY_PREFIX = "ip:";
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final JwtUtil jwtUtil;
+    private final ObjectWriter errorWriter;
+    private final boolean enabled;
+    private final List<LimitedRoute> routes;
+
+    private static final class LimitedRoute {
+        final String path;
+        final RateLimitProperties.KeyType keyType;
+        final long intervalNanos;
+        final long capacityNanos;
+        final Cache<String, TokenBucket> buckets;
+        final AtomicLong rejected = new AtomicLong();
+
+        LimitedRoute(RateLimitProperties.Route route, int maxKeys) {
+            if (route.capacity() < 1 || route.period() == null || route.period().isNegative()
+                    || route.period().isZero()) {
+                throw new IllegalArgumentException("Rate limit of " + route.path()
+                        + " needs a positive capacity and period");
+            }
+            this.path = route.path();
+            this.keyType = route.key();
+            this.intervalNanos = Math.max(route.period().toNanos() / route.capacity(), 1);
+            this.capacityNanos = intervalNanos * route.capacity();
+            // A bucket untouched for this long is full again, so evicting it changes nothing
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(capacityNanos))
+                    .build();
+        }
+    }
+
+    public RateLimitFilter(JwtUtil jwtUtil, ObjectMapper objectMapper, RateLimitProperties properties) {
+        this.jwtUtil = jwtUtil;
+        this.errorWriter = objectMapper.writerFor(ErrorResponse.class);
+        this.enabled = properties.enabled();
+        this.routes = properties.routes().stream()
+                .map(route -> new LimitedRoute(route, properties.maxKeys()))
+                .toList();
+        if (enabled) {
+            properties.routes().forEach(route -> log.info("Rate limiting {} to {} requests per {} by {}",
+                    route.path(), route.capacity(), route.period(), route.key()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health probes must answer even for a throttled client
+        return !enabled || request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        LimitedRoute route = findRoute(request.getRequestURI());
+        if (route != null) {
+            TokenBucket bucket = route.buckets.get(key(route, request), key -> new TokenBucket());
+            long waitNanos = bucket.tryAcquire(System.nanoTime(), route.intervalNanos, route.capacityNanos);
+            if (waitNanos > 0) {
+                route.rejected.incrementAndGet();
+                reject(request, response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private LimitedRoute findRoute(String uri) {
+        for (LimitedRoute route : routes) {
+            if (uri.startsWith(route.path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String key(LimitedRoute route, HttpServletRequest request) {
+        if (route.keyType == RateLimitProperties.KeyType.USER) {
+            // Only a subject the JWT filter already verified is trusted as a key. Nothing is verified here, so
+            // a forged or expired token costs a cache lookup and is limited by address like a new token
+            String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+                String username = jwtUtil.cachedPrincipal(bearerToken.substring(7))
+                        .map(JwtPrincipal::username)
+                        .orElse(null);
+                if (username != null) {
+                    return username;
+                }
+            }
+            return IP_KEY_PREFIX + request.getRemoteAddr();
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("TOO_MANY_REQUESTS")
+                .message("Rate limit exceeded, retry later")
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        long retryAfterSeconds = (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        errorWriter.writeValue(response.getOutputStream(), error);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (LimitedRoute route : routes) {
+            Gauge.builder("http.server.rate.limit.keys", route.buckets, Cache::estimatedSize)
+                    .description("Clients with a rate-limit bucket on this route")
+                    .tag("route", route.path)
+                    .register(registry);
+            FunctionCounter.builder("http.server.rate.limit.rejected", route.rejected, AtomicLong::get)
+                    .description("Requests rejected with 429 by the rate limit of this route")
+                    .tag("route", route.path)
+                    .register(registry);
+        }
+    }
+}
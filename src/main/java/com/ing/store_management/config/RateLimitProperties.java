@@ -0,0 +1,34 @@
+package com.ing.store_management.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Request rate limits under {@code app.rate-limit}. Routes are matched by path prefix in the order given and the
+ * first match applies; requests matching no route are not limited.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("100000") int maxKeys,
+                                  List<Route> routes) {
+
+    public enum KeyType {
+        /** The client address; for endpoints used before the client has a token. */
+        IP,
+        /** The subject of a valid access token, falling back to the client address without one. */
+        USER
+    }
+
+    /**
+     * Allows {@code capacity} requests per {@code period} for each key, in bursts of up to {@code capacity}.
+     */
+    public record Route(String path, @DefaultValue("user") KeyType key, int capacity, Duration period) {
+    }
+
+    public RateLimitProperties {
+        routes = routes != null ? List.copyOf(routes) : List.of();
+    }
+}
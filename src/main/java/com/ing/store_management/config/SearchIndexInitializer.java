@@ -0,0 +1,21 @@
+package com.ing.store_management.config;
+
+import com.ing.store_management.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexInitializer {
+    private final ProductService productService;
+
+    // Runs after DataLoader so the sample products are indexed too
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        productService.rebuildSearchIndexIfStale();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ing.store_management.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket held as a single theoretical arrival time (the generic cell rate algorithm): each admitted
+ * request pushes it one interval further, and a request is refused when that would put it more than a full
+ * bucket ahead of now. Admitting is one compare-and-set, so buckets need no lock. A bucket whose arrival time
+ * has passed is full and behaves exactly like a new one, which is what makes dropping idle buckets safe.
+ */
+final class TokenBucket {
+
+    // Starts in the past, i.e. full
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Takes a token if one is available at {@code nowNanos}. Returns 0 when the request is admitted, otherwise
+     * the nanoseconds until the next token.
+     */
+    long tryAcquire(long nowNanos, long intervalNanos, long capacityNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long excess = next - nowNanos - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.ing.store_management.controller;
 import com.ing.store_management.dto.CreateUserRequest;
 import com.ing.store_management.dto.LoginRequest;
 import com.ing.store_management.dto.LoginResponse;
+import com.ing.store_management.dto.RefreshTokenRequest;
 import com.ing.store_management.dto.UserDto;
 import com.ing.store_management.service.AuthService;
 import jakarta.validation.Valid;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -36,12 +38,23 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> loginUser(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> loginUser(@Valid @RequestBody LoginRequest request) {
         log.info("REST request to login user: {}", request.getUsername());
 
-        LoginResponse response = authService.login(request);
+        // Completes asynchronously once the password has been checked off the request thread
+        return authService.login(request).thenApply(ResponseEntity::ok);
+    }
 
-        return ResponseEntity.ok(response);
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        log.info("REST request to refresh access token");
+        return ResponseEntity.ok(authService.refresh(request));
     }
-}
 
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logoutUser(@Valid @RequestBody RefreshTokenRequest request) {
+        log.info("REST request to logout");
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
+    }
+}
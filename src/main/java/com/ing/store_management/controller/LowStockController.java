@@ -0,0 +1,81 @@
+package com.ing.store_management.controller;
+
+import com.ing.store_management.dto.LowStockAlertDto;
+import com.ing.store_management.dto.LowStockThresholdDto;
+import com.ing.store_management.dto.LowStockThresholdRequest;
+import com.ing.store_management.service.LowStockService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/low-stock")
+@RequiredArgsConstructor
+@Slf4j
+public class LowStockController {
+    private final LowStockService lowStockService;
+
+    @GetMapping("/alerts")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<List<LowStockAlertDto>> getOpenAlerts(@RequestParam(required = false) String category) {
+        log.info("REST request to get open low-stock alerts - category: {}", category);
+        return ResponseEntity.ok(lowStockService.findOpenAlerts(category));
+    }
+
+    @GetMapping("/alerts/product/{productId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<List<LowStockAlertDto>> getAlertHistory(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("REST request to get low-stock alert history of product {}", productId);
+        return ResponseEntity.ok(lowStockService.findAlertHistory(productId, size));
+    }
+
+    @GetMapping("/thresholds")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<LowStockThresholdDto>> getThresholds() {
+        log.info("REST request to get low-stock thresholds");
+        return ResponseEntity.ok(lowStockService.findThresholds());
+    }
+
+    @PutMapping("/thresholds/product/{productId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<LowStockThresholdDto> setProductThreshold(
+            @PathVariable Long productId,
+            @Valid @RequestBody LowStockThresholdRequest request) {
+        log.info("REST request to set low-stock threshold of product {}", productId);
+        return ResponseEntity.ok(lowStockService.setProductThreshold(productId, request));
+    }
+
+    @PutMapping("/thresholds/category/{category}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<LowStockThresholdDto> setCategoryThreshold(
+            @PathVariable String category,
+            @Valid @RequestBody LowStockThresholdRequest request) {
+        log.info("REST request to set low-stock threshold of category: {}", category);
+        return ResponseEntity.ok(lowStockService.setCategoryThreshold(category, request));
+    }
+
+    @DeleteMapping("/thresholds/product/{productId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<Void> deleteProductThreshold(@PathVariable Long productId) {
+        log.info("REST request to delete low-stock threshold of product {}", productId);
+        return lowStockService.deleteProductThreshold(productId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/thresholds/category/{category}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<Void> deleteCategoryThreshold(@PathVariable String category) {
+        log.info("REST request to delete low-stock threshold of category: {}", category);
+        return lowStockService.deleteCategoryThreshold(category)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
@@ -1,21 +1,58 @@
 package com.ing.store_management.controller;
 
+import com.ing.store_management.cache.ProductResponseCache;
+import com.ing.store_management.dto.BulkDeleteRequest;
+import com.ing.store_management.dto.BulkOperationReport;
+import com.ing.store_management.dto.BulkPriceChangeRequest;
+import com.ing.store_management.dto.CursorPage;
+import com.ing.store_management.dto.ProductBatchRequest;
+import com.ing.store_management.dto.ProductBatchResponse;
+import com.ing.store_management.dto.ProductChange;
+import com.ing.store_management.dto.ProductImportReport;
 import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.dto.ProductPatchRequest;
+import com.ing.store_management.dto.ProductQueryResponse;
+import com.ing.store_management.dto.StockAdjustmentRequest;
+import com.ing.store_management.dto.StockLevelResponse;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.model.Product;
+import com.ing.store_management.repository.ProductVersion;
+import com.ing.store_management.service.ProductBulkService;
+import com.ing.store_management.service.ProductChangeFeedService;
+import com.ing.store_management.service.ProductExportService;
+import com.ing.store_management.service.ProductImportService;
 import com.ing.store_management.service.ProductService;
+import com.ing.store_management.stream.ProductChangeBroadcaster;
+import com.ing.store_management.util.EntityTags;
+import com.ing.store_management.util.ProductCursor;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
@@ -23,21 +60,47 @@ import java.util.Map;
 @Slf4j
 public class ProductController {
     private final ProductService productService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final ProductBulkService productBulkService;
+    private final ProductChangeFeedService productChangeFeedService;
+    private final ProductChangeBroadcaster productChangeBroadcaster;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ProductDto> createProduct(@Valid @RequestBody ProductDto productDto) {
         log.info("REST request to create product: {}", productDto.getName());
         ProductDto createdProduct = productService.createProduct(productDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(EntityTags.fromVersion(createdProduct.getVersion()))
+                .body(createdProduct);
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ProductImportReport> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        log.info("REST request to import products from {}", contentType);
+        ProductImportReport report = productImportService.importProducts(
+                ProductImportService.Format.fromContentType(contentType), body);
+        return ResponseEntity.ok(report);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
-    public ResponseEntity<ProductDto> getProduct(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getProduct(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("REST request to get product by ID: {}", id);
-        ProductDto product = productService.findProductById(id);
-        return ResponseEntity.ok(product);
+        ProductResponseCache.SerializedProduct product = productService.findSerializedProductById(id);
+        if (EntityTags.matchesIfNoneMatch(ifNoneMatch, product.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(product.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(product.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(product.json());
     }
 
     @GetMapping
@@ -50,8 +113,8 @@ public class ProductController {
         log.info("REST request to get all products - page: {}, size: {}, sortBy: {}, sortDir: {}",
                 page, size, sortBy, sortDir);
 
-        Sort sort = sortDir.equalsIgnoreCase("desc") ?
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
+        // Offset pages can sort by any product attribute; only /scroll is limited to keyset-friendly fields
+        Sort sort = Sort.by(ProductCursor.parseDirection(sortDir), validateProductProperty(sortBy));
 
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<ProductDto> products = productService.findAllProducts(pageable);
@@ -59,45 +122,253 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @PostMapping("/batch-get")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<ProductBatchResponse> batchGetProducts(@Valid @RequestBody ProductBatchRequest request) {
+        log.info("REST request to get {} products by ID", request.getIds().size());
+        return ResponseEntity.ok(productService.findProductsByIds(request.getIds()));
+    }
+
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestParam List<Long> ids) {
+        log.info("REST request to get {} products by ID", ids.size());
+        return ResponseEntity.ok(productService.findProductsByIds(ids));
+    }
+
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<CursorPage<ProductDto>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("REST request to scroll products - size: {}, sortBy: {}, sortDir: {}, includeTotal: {}",
+                size, sortBy, sortDir, includeTotal);
+        CursorPage<ProductDto> products = productService.findProductsAfterCursor(cursor, size, sortBy, sortDir, includeTotal);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Products changed or deleted since the {@code since} token, for clients that keep a local copy. Start
+     * without a token and store the returned {@code nextCursor} for the next sync.
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<CursorPage<ProductChange>> getProductChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("REST request to get product changes - size: {}, initial sync: {}", size, since == null);
+        return ResponseEntity.ok(productChangeFeedService.findChangesSince(since, size));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("REST request to export products - format: {}, gzip: {}", format, gzip);
+
+        ProductExportService.Format exportFormat = ProductExportService.Format.from(format);
+        String filename = "products." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> productExportService.export(exportFormat, gzip, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
-    public ResponseEntity<List<ProductDto>> searchProducts(@RequestParam String name) {
-        log.info("REST request to search products by name: {}", name);
-        List<ProductDto> products = productService.findProductsByName(name);
+    public ResponseEntity<Slice<ProductDto>> searchProducts(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
+        log.info("REST request to search products by name: {} - page: {}, size: {}", name, page, size);
+        Slice<ProductDto> products = productService.findProductsByName(name, page, size, includeTotal);
         return ResponseEntity.ok(products);
     }
 
-    @GetMapping("/category/{category}")
+    @GetMapping(value = "/search", params = "q")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
-    public ResponseEntity<List<ProductDto>> getProductsByCategory(@PathVariable String category) {
-        log.info("REST request to get products by category: {}", category);
-        List<ProductDto> products = productService.findProductsByCategory(category);
+    public ResponseEntity<Page<ProductDto>> fullTextSearchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        log.info("REST request to full-text search products: {}", q);
+        Page<ProductDto> products = productService.searchProducts(q, page, size);
         return ResponseEntity.ok(products);
     }
 
-    @GetMapping("/available")
+    @GetMapping("/query")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
-    public ResponseEntity<List<ProductDto>> getAvailableProducts() {
-        log.info("REST request to get available products");
-        List<ProductDto> products = productService.findAvailableProducts();
+    public ResponseEntity<ProductQueryResponse> queryProducts(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "false") boolean available,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("REST request to query products - name: {}, category: {}, price: {}..{}, available: {}",
+                name, category, minPrice, maxPrice, available);
+        ProductQueryResponse products = productService.queryProducts(name, category, minPrice, maxPrice, available,
+                page, size);
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Server-Sent Events stream of product changes, optionally limited to some categories. Reconnecting
+     * clients send Last-Event-ID (or the {@code lastEventId} parameter) to receive what they missed.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public SseEmitter streamProductChanges(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) String lastEventId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader) {
+        Set<String> categories = category == null ? Set.of() : category.stream()
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        String resumeFrom = lastEventIdHeader != null ? lastEventIdHeader : lastEventId;
+        log.info("REST request to stream product changes - categories: {}, last event: {}", categories, resumeFrom);
+        return productChangeBroadcaster.subscribe(categories, resumeFrom);
+    }
+
+    @PostMapping("/search/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        log.info("REST request to rebuild product search index");
+        long indexed = productService.rebuildSearchIndex();
+        return ResponseEntity.ok(Map.of("message", "Search index rebuilt successfully", "indexed", indexed));
+    }
+
+    @GetMapping("/category/{category}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<Slice<ProductDto>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("REST request to get products by category: {} - page: {}, size: {}", category, page, size);
+        return conditionalPage(ifNoneMatch,
+                () -> productService.findProductVersionsByCategory(category, page, size, includeTotal),
+                () -> productService.findProductsByCategory(category, page, size, includeTotal));
+    }
+
+    @GetMapping("/available")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<Slice<ProductDto>> getAvailableProducts(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("REST request to get available products - page: {}, size: {}", page, size);
+        return conditionalPage(ifNoneMatch,
+                () -> productService.findAvailableProductVersions(page, size, includeTotal),
+                () -> productService.findAvailableProducts(page, size, includeTotal));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
     public ResponseEntity<ProductDto> updateProduct(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProductDto productDto) {
-        log.info("REST request to update product with ID: {}", id);
-        ProductDto updatedProduct = productService.updateProduct(id, productDto);
-        return ResponseEntity.ok(updatedProduct);
+        log.info("REST request to update product with ID: {}, If-Match: {}", id, ifMatch);
+        ProductDto updatedProduct = productService.updateProduct(id, productDto, EntityTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(EntityTags.fromVersion(updatedProduct.getVersion()))
+                .body(updatedProduct);
+    }
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ProductDto> patchProduct(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ProductPatchRequest patch) {
+        log.info("REST request to patch product with ID: {}, If-Match: {}", id, ifMatch);
+        ProductDto patchedProduct = productService.patchProduct(id, patch, EntityTags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(EntityTags.fromVersion(patchedProduct.getVersion()))
+                .body(patchedProduct);
+    }
+
+    @PostMapping("/{id}/stock/decrement")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<StockLevelResponse> decrementStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        log.info("REST request to decrement stock of product {} by {}", id, request.getQuantity());
+        StockLevelResponse stockLevel = productService.decrementStock(id, request.getQuantity());
+        return ResponseEntity.ok(stockLevel);
+    }
+
+    @PostMapping("/{id}/stock/increment")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<StockLevelResponse> incrementStock(
+            @PathVariable Long id,
+            @Valid @RequestBody StockAdjustmentRequest request) {
+        log.info("REST request to increment stock of product {} by {}", id, request.getQuantity());
+        StockLevelResponse stockLevel = productService.incrementStock(id, request.getQuantity());
+        return ResponseEntity.ok(stockLevel);
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, String>> deleteProduct(@PathVariable Long id) {
-        log.info("REST request to delete product with ID: {}", id);
-        productService.deleteProduct(id);
+    public ResponseEntity<Map<String, String>> deleteProduct(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("REST request to delete product with ID: {}, If-Match: {}", id, ifMatch);
+        productService.deleteProduct(id, EntityTags.parseIfMatch(ifMatch));
         return ResponseEntity.ok(Map.of("message", "Product deleted successfully"));
     }
+
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkOperationReport> bulkDeleteProducts(@Valid @RequestBody BulkDeleteRequest request) {
+        log.info("REST request to bulk delete products - ids: {}, category: {}, maxQuantity: {}",
+                request.getIds() != null ? request.getIds().size() : null, request.getCategory(), request.getMaxQuantity());
+        return ResponseEntity.ok(productBulkService.deleteProducts(request));
+    }
+
+    @PostMapping("/bulk-price-change")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkOperationReport> bulkChangePrices(@Valid @RequestBody BulkPriceChangeRequest request) {
+        log.info("REST request to bulk change prices in category: {}", request.getCategory());
+        return ResponseEntity.ok(productBulkService.changePrices(request));
+    }
+
+    private static String validateProductProperty(String sortBy) {
+        try {
+            if (PropertyPath.from(sortBy, Product.class).hasNext()) {
+                throw new InvalidRequestException("Cannot sort by nested property '" + sortBy + "'");
+            }
+        } catch (PropertyReferenceException | IllegalArgumentException e) {
+            throw new InvalidRequestException("Cannot sort by '" + sortBy + "': no such product property");
+        }
+        return sortBy;
+    }
+
+    private ResponseEntity<Slice<ProductDto>> conditionalPage(String ifNoneMatch,
+                                                              Supplier<Slice<ProductVersion>> versions,
+                                                              Supplier<Slice<ProductDto>> products) {
+        if (ifNoneMatch != null) {
+            // Revalidate from (id, version) pairs alone; rows are loaded only when something changed
+            String etag = EntityTags.fromSlice(versions.get(), ProductVersion::id, ProductVersion::version);
+            if (EntityTags.matchesIfNoneMatch(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        Slice<ProductDto> page = products.get();
+        return ResponseEntity.ok()
+                .eTag(EntityTags.fromSlice(page, ProductDto::getId, ProductDto::getVersion))
+                .body(page);
+    }
 }
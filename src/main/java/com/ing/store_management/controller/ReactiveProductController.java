@@ -0,0 +1,64 @@
+package com.ing.store_management.controller;
+
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.service.ProductReactiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive read API. Lists are streamed as NDJSON, one product per line, written as rows arrive from the
+ * database; the request thread is released while the query runs.
+ */
+@RestController
+@RequestMapping("/api/reactive/products")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveProductController {
+
+    private static final String NDJSON = MediaType.APPLICATION_NDJSON_VALUE;
+
+    private final ProductReactiveService productReactiveService;
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public Mono<ProductDto> getProduct(@PathVariable Long id) {
+        log.info("Reactive REST request to get product by ID: {}", id);
+        return productReactiveService.findProductById(id);
+    }
+
+    @GetMapping(produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public Flux<ProductDto> streamProducts(@RequestParam(defaultValue = "0") long afterId) {
+        log.info("Reactive REST request to stream products after ID: {}", afterId);
+        return productReactiveService.streamProducts(afterId);
+    }
+
+    @GetMapping(value = "/search", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public Flux<ProductDto> searchProducts(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Reactive REST request to search products by name: {}", name);
+        return productReactiveService.findProductsByName(name, page, size);
+    }
+
+    @GetMapping(value = "/category/{category}", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public Flux<ProductDto> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        log.info("Reactive REST request to get products by category: {}", category);
+        return productReactiveService.findProductsByCategory(category, page, size);
+    }
+}
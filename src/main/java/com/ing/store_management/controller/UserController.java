@@ -2,6 +2,7 @@ package com.ing.store_management.controller;
 
 import com.ing.store_management.dto.UserDto;
 import com.ing.store_management.model.User;
+import com.ing.store_management.service.RefreshTokenService;
 import com.ing.store_management.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +20,7 @@ import java.util.Map;
 @PreAuthorize("hasRole('ADMIN')")
 public class UserController {
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
 
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUser(@PathVariable Long id) {
@@ -84,4 +86,12 @@ public class UserController {
         UserDto updatedUser = userService.disableUser(id);
         return ResponseEntity.ok(updatedUser);
     }
+
+    @DeleteMapping("/{id}/refresh-tokens")
+    public ResponseEntity<Map<String, Object>> revokeRefreshTokens(@PathVariable Long id) {
+        log.info("REST request to revoke refresh tokens of user ID: {}", id);
+        userService.findUserById(id);
+        int revoked = refreshTokenService.revokeAll(id);
+        return ResponseEntity.ok(Map.of("revoked", revoked));
+    }
 }
@@ -0,0 +1,28 @@
+package com.ing.store_management.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Either an explicit id list or a filter on category and/or stock level, not both.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+    private List<@NotNull(message = "Product IDs must not be null") Long> ids;
+
+    @Size(max = 50, message = "Category cannot exceed 50 characters")
+    private String category;
+
+    @Min(value = 0, message = "Maximum quantity cannot be negative")
+    private Integer maxQuantity;
+}
@@ -0,0 +1,23 @@
+package com.ing.store_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOperationReport {
+    private long matched;
+    private long affected;
+    private long skipped;
+    private int chunks;
+    private long durationMs;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,32 @@
+package com.ing.store_management.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Reprices a category by either a percentage or an absolute amount, not both.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPriceChangeRequest {
+    @NotBlank(message = "Category is required")
+    @Size(max = 50, message = "Category cannot exceed 50 characters")
+    private String category;
+
+    @DecimalMin(value = "-100", inclusive = false, message = "Percentage must be greater than -100")
+    @Digits(integer = 5, fraction = 2, message = "Percentage must have at most 2 decimal places")
+    private BigDecimal percentage;
+
+    @Digits(integer = 8, fraction = 2, message = "Amount must have at most 2 decimal places")
+    private BigDecimal amount;
+}
@@ -12,6 +12,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class LoginResponse {
     private String token;
+    // Seconds until the access token expires; refresh before then
+    private Long expiresIn;
+    private String refreshToken;
     private String username;
     private User.Role role;
     private String message;
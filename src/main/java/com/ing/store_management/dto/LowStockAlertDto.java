@@ -0,0 +1,25 @@
+package com.ing.store_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LowStockAlertDto {
+    private Long id;
+    private Long productId;
+    private String category;
+    private Integer quantity;
+    private Integer lowLevel;
+    private LocalDateTime raisedAt;
+    private LocalDateTime clearedAt;
+    private Integer clearedQuantity;
+}
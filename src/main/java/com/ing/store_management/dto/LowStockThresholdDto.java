@@ -0,0 +1,23 @@
+package com.ing.store_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Alert when stock drops to {@code lowLevel} or below; clear once it is back at {@code resetLevel} or above.
+ * Set for either one product or one category.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LowStockThresholdDto {
+    private Long productId;
+    private String category;
+    private int lowLevel;
+    private int resetLevel;
+}
@@ -0,0 +1,21 @@
+package com.ing.store_management.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockThresholdRequest {
+    @NotNull(message = "Low level is required")
+    @Min(value = 0, message = "Low level cannot be negative")
+    private Integer lowLevel;
+
+    // Defaults to lowLevel plus app.low-stock.hysteresis
+    private Integer resetLevel;
+}
@@ -0,0 +1,19 @@
+package com.ing.store_management.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchRequest {
+    @NotEmpty(message = "At least one product ID is required")
+    private List<@NotNull(message = "Product IDs must not be null") Long> ids;
+}
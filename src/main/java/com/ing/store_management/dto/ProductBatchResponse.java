@@ -0,0 +1,17 @@
+package com.ing.store_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchResponse {
+    private List<ProductDto> products;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,25 @@
+package com.ing.store_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the changes feed: the current state of a product, or a tombstone ({@code deleted}, no
+ * {@code product}) for one that was deleted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChange {
+    private Long productId;
+    private boolean deleted;
+    private LocalDateTime changedAt;
+    private ProductDto product;
+}
@@ -0,0 +1,93 @@
+package com.ing.store_management.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A committed product change, published as an application event and pushed to stream subscribers. A null
+ * {@code category} means the change may touch any category; {@code previousCategory} is set when an update
+ * moved the product out of another category.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, STOCK_CHANGED, BULK_CHANGED
+    }
+
+    private Type type;
+    private Long productId;
+    private String category;
+    private String previousCategory;
+    private Long version;
+    private Integer quantity;
+    private ProductDto product;
+    private Long affected;
+    private LocalDateTime timestamp;
+
+    public static ProductChangeEvent created(ProductDto product) {
+        return of(Type.CREATED, product);
+    }
+
+    /**
+     * An update that may have moved the product; {@code previousCategory} is kept only when it differs.
+     */
+    public static ProductChangeEvent updated(ProductDto product, String previousCategory) {
+        ProductChangeEvent event = of(Type.UPDATED, product);
+        if (previousCategory != null && !previousCategory.equals(product.getCategory())) {
+            event.setPreviousCategory(previousCategory);
+        }
+        return event;
+    }
+
+    public static ProductChangeEvent deleted(Long productId) {
+        return ProductChangeEvent.builder()
+                .type(Type.DELETED)
+                .productId(productId)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    public static ProductChangeEvent stockChanged(Long productId, String category, Long version, Integer quantity) {
+        return ProductChangeEvent.builder()
+                .type(Type.STOCK_CHANGED)
+                .productId(productId)
+                .category(category)
+                .version(version)
+                .quantity(quantity)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Many products changed at once; subscribers should refetch rather than expect one event per product.
+     */
+    public static ProductChangeEvent bulkChanged(String category, long affected) {
+        return ProductChangeEvent.builder()
+                .type(Type.BULK_CHANGED)
+                .category(category)
+                .affected(affected)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static ProductChangeEvent of(Type type, ProductDto product) {
+        return ProductChangeEvent.builder()
+                .type(type)
+                .productId(product.getId())
+                .category(product.getCategory())
+                .version(product.getVersion())
+                .product(product)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
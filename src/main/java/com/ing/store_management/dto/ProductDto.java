@@ -1,9 +1,11 @@
 package com.ing.store_management.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -20,8 +22,10 @@ public class ProductDto {
     private Long id;
 
     @NotBlank(message = "Product name is required")
+    @Size(max = 100, message = "Product name cannot exceed 100 characters")
     private String name;
 
+    @Size(max = 500, message = "Description cannot exceed 500 characters")
     private String description;
 
     @NotNull(message = "Price is required")
@@ -33,8 +37,13 @@ public class ProductDto {
     private Integer quantity;
 
     @NotBlank(message = "Category is required")
+    @Size(max = 50, message = "Category cannot exceed 50 characters")
     private String category;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Output only; clients send it back through If-Match
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
 }
@@ -0,0 +1,31 @@
+package com.ing.store_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReport {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private long durationMs;
+    private double rowsPerSecond;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String name;
+        private String message;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ing.store_management.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Partial product update: null fields are left unchanged, supplied ones follow the same rules as {@link ProductDto}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPatchRequest {
+    @Pattern(regexp = "(?s).*\\S.*", message = "Product name cannot be blank")
+    @Size(max = 100, message = "Product name cannot exceed 100 characters")
+    private String name;
+
+    @Size(max = 500, message = "Description cannot exceed 500 characters")
+    private String description;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than zero")
+    private BigDecimal price;
+
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private Integer quantity;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Category cannot be blank")
+    @Size(max = 50, message = "Category cannot exceed 50 characters")
+    private String category;
+}
@@ -0,0 +1,15 @@
+package com.ing.store_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelResponse {
+    private Long productId;
+    private Integer quantity;
+}
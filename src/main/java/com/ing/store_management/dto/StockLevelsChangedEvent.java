@@ -0,0 +1,26 @@
+package com.ing.store_management.dto;
+
+import com.ing.store_management.repository.ProductStock;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Stock levels written or removed by a bulk path, one entry per product. Published for stock listeners
+ * alongside the summary {@link ProductChangeEvent}, which carries no per-product detail.
+ */
+@Data
+@AllArgsConstructor
+public class StockLevelsChangedEvent {
+    private List<ProductStock> levels;
+    private List<Long> deletedIds;
+
+    public static StockLevelsChangedEvent changed(List<ProductStock> levels) {
+        return new StockLevelsChangedEvent(levels, List.of());
+    }
+
+    public static StockLevelsChangedEvent deleted(List<Long> deletedIds) {
+        return new StockLevelsChangedEvent(List.of(), deletedIds);
+    }
+}
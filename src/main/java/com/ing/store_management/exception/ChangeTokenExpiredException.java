@@ -0,0 +1,9 @@
+package com.ing.store_management.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ChangeTokenExpiredException extends BusinessException {
+    public ChangeTokenExpiredException(String message) {
+        super(message, HttpStatus.GONE, "RESYNC_REQUIRED");
+    }
+}
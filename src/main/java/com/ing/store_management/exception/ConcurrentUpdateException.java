@@ -0,0 +1,9 @@
+package com.ing.store_management.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConcurrentUpdateException extends BusinessException {
+    public ConcurrentUpdateException(String message) {
+        super(message, HttpStatus.CONFLICT, "CONCURRENT_UPDATE");
+    }
+}
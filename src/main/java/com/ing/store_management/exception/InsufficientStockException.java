@@ -0,0 +1,9 @@
+package com.ing.store_management.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InsufficientStockException extends BusinessException {
+    public InsufficientStockException(String message) {
+        super(message, HttpStatus.CONFLICT, "INSUFFICIENT_STOCK");
+    }
+}
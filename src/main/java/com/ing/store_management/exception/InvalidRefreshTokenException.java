@@ -0,0 +1,9 @@
+package com.ing.store_management.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRefreshTokenException extends BusinessException {
+    public InvalidRefreshTokenException(String message) {
+        super(message, HttpStatus.UNAUTHORIZED, "INVALID_REFRESH_TOKEN");
+    }
+}
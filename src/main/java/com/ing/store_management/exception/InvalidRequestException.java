@@ -0,0 +1,9 @@
+package com.ing.store_management.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidRequestException extends BusinessException {
+    public InvalidRequestException(String message) {
+        super(message, HttpStatus.BAD_REQUEST, "INVALID_REQUEST");
+    }
+}
@@ -0,0 +1,9 @@
+package com.ing.store_management.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class PreconditionFailedException extends BusinessException {
+    public PreconditionFailedException(String message) {
+        super(message, HttpStatus.PRECONDITION_FAILED, "PRECONDITION_FAILED");
+    }
+}
@@ -0,0 +1,16 @@
+package com.ing.store_management.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+@Getter
+public class TooManyRequestsException extends BusinessException {
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS");
+        this.retryAfter = retryAfter;
+    }
+}
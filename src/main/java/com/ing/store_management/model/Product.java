@@ -46,4 +46,8 @@ public class Product extends AbstractTimestampEntity {
     @NotBlank(message = "Category is required")
     private String category;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 }
\ No newline at end of file
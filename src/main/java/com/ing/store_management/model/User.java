@@ -53,6 +53,10 @@ public class User extends AbstractTimestampEntity {
     @Builder.Default
     private Boolean enabled = true;
 
+    // Bumped on every role or enabled change so that tokens issued before it are refused
+    @Column(name = "security_stamp", nullable = false)
+    private int securityStamp;
+
     public enum Role {
         ADMIN, MANAGER, EMPLOYEE
     }
@@ -0,0 +1,104 @@
+package com.ing.store_management.repository;
+
+import com.ing.store_management.dto.LowStockAlertDto;
+import com.ing.store_management.dto.LowStockThresholdDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Low-stock thresholds and alerts. Both are read into memory at startup; afterwards only changes are written.
+ */
+@Repository
+public class LowStockJdbcRepository {
+
+    private static final String ALERT_COLUMNS =
+            "id, product_id, category, quantity, low_level, raised_at, cleared_at, cleared_quantity";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LowStockJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public List<LowStockThresholdDto> findThresholds() {
+        return jdbcTemplate.query("SELECT product_id, category, low_level, reset_level FROM low_stock_threshold",
+                (rs, rowNum) -> LowStockThresholdDto.builder()
+                        .productId(rs.getObject("product_id", Long.class))
+                        .category(rs.getString("category"))
+                        .lowLevel(rs.getInt("low_level"))
+                        .resetLevel(rs.getInt("reset_level"))
+                        .build());
+    }
+
+    public void saveProductThreshold(Long productId, int lowLevel, int resetLevel, LocalDateTime timestamp) {
+        jdbcTemplate.update("MERGE INTO low_stock_threshold (product_id, low_level, reset_level, updated_at) "
+                + "KEY (product_id) VALUES (?, ?, ?, ?)", productId, lowLevel, resetLevel, timestamp);
+    }
+
+    public void saveCategoryThreshold(String category, int lowLevel, int resetLevel, LocalDateTime timestamp) {
+        jdbcTemplate.update("MERGE INTO low_stock_threshold (category, low_level, reset_level, updated_at) "
+                + "KEY (category) VALUES (?, ?, ?, ?)", category, lowLevel, resetLevel, timestamp);
+    }
+
+    public boolean deleteProductThreshold(Long productId) {
+        return jdbcTemplate.update("DELETE FROM low_stock_threshold WHERE product_id = ?", productId) == 1;
+    }
+
+    public boolean deleteCategoryThreshold(String category) {
+        return jdbcTemplate.update("DELETE FROM low_stock_threshold WHERE category = ?", category) == 1;
+    }
+
+    public List<LowStockAlertDto> findOpenAlerts() {
+        return jdbcTemplate.query("SELECT " + ALERT_COLUMNS + " FROM low_stock_alert WHERE cleared_at IS NULL "
+                + "ORDER BY id", (rs, rowNum) -> mapAlert(rs));
+    }
+
+    /**
+     * Most recent alerts of one product, open or cleared, newest first.
+     */
+    public List<LowStockAlertDto> findAlertsByProduct(Long productId, int limit) {
+        return jdbcTemplate.query("SELECT " + ALERT_COLUMNS + " FROM low_stock_alert WHERE product_id = ? "
+                + "ORDER BY id DESC FETCH FIRST ? ROWS ONLY", (rs, rowNum) -> mapAlert(rs), productId, limit);
+    }
+
+    public long insertAlert(LowStockAlertDto alert) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO low_stock_alert "
+                    + "(product_id, category, quantity, low_level, raised_at) VALUES (?, ?, ?, ?, ?)", new String[]{"id"});
+            statement.setLong(1, alert.getProductId());
+            statement.setString(2, alert.getCategory());
+            statement.setInt(3, alert.getQuantity());
+            statement.setInt(4, alert.getLowLevel());
+            statement.setObject(5, alert.getRaisedAt());
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    public void clearAlert(long id, LocalDateTime clearedAt, Integer clearedQuantity) {
+        jdbcTemplate.update("UPDATE low_stock_alert SET cleared_at = ?, cleared_quantity = ? "
+                + "WHERE id = ? AND cleared_at IS NULL", clearedAt, clearedQuantity, id);
+    }
+
+    private static LowStockAlertDto mapAlert(ResultSet rs) throws SQLException {
+        return LowStockAlertDto.builder()
+                .id(rs.getLong("id"))
+                .productId(rs.getLong("product_id"))
+                .category(rs.getString("category"))
+                .quantity(rs.getInt("quantity"))
+                .lowLevel(rs.getInt("low_level"))
+                .raisedAt(rs.getObject("raised_at", LocalDateTime.class))
+                .clearedAt(rs.getObject("cleared_at", LocalDateTime.class))
+                .clearedQuantity(rs.getObject("cleared_quantity", Integer.class))
+                .build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.ing.store_management.repository;
+
+import com.ing.store_management.dto.ProductDto;
+
+/**
+ * A product row right after a patch, with the category it had before when the patch changed it.
+ */
+public record PatchedProduct(ProductDto product, String previousCategory) {
+}
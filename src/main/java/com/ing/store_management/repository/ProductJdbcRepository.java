@@ -0,0 +1,349 @@
+package com.ing.store_management.repository;
+
+import com.ing.store_management.dto.ProductChange;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.dto.ProductPatchRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to the product table for bulk paths where managed entities are pure overhead.
+ */
+@Repository
+public class ProductJdbcRepository {
+
+    // Each branch is a range scan on its (timestamp, id) index capped at the page size, so the merge stays small
+    static final String CHANGES_AFTER = """
+            SELECT * FROM (
+                (SELECT %s, FALSE AS deleted FROM product
+                 WHERE updated_at >= ? AND (updated_at > ? OR id > ?) AND updated_at <= ?
+                 ORDER BY updated_at, id FETCH FIRST ? ROWS ONLY)
+                UNION ALL
+                (SELECT product_id, NULL, NULL, NULL, NULL, NULL, NULL, deleted_at, NULL, TRUE FROM product_tombstone
+                 WHERE deleted_at >= ? AND (deleted_at > ? OR product_id > ?) AND deleted_at <= ?
+                 ORDER BY deleted_at, product_id FETCH FIRST ? ROWS ONLY)
+            ) changes
+            ORDER BY updated_at, id FETCH FIRST ? ROWS ONLY
+            """.formatted(ProductRows.COLUMNS);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ProductJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public void streamAll(int fetchSize, Consumer<ProductDto> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT " + ProductRows.COLUMNS + " FROM product ORDER BY id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            consumer.accept(mapRow(rs));
+        });
+    }
+
+    public Set<String> findExistingLowerCaseNames(Collection<String> lowerCaseNames) {
+        if (lowerCaseNames.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> existing = new HashSet<>();
+        namedJdbcTemplate.query("SELECT name_key FROM product WHERE name_key IN (:names)",
+                Map.of("names", lowerCaseNames),
+                rs -> {
+                    existing.add(rs.getString(1));
+                });
+        return existing;
+    }
+
+    public List<Long> batchInsert(List<ProductDto> products, LocalDateTime timestamp) {
+        SqlParameterSource[] rows = products.stream()
+                .map(product -> new MapSqlParameterSource()
+                        .addValue("name", product.getName())
+                        .addValue("description", product.getDescription())
+                        .addValue("price", product.getPrice())
+                        .addValue("quantity", product.getQuantity())
+                        .addValue("category", product.getCategory())
+                        .addValue("timestamp", timestamp))
+                .toArray(SqlParameterSource[]::new);
+
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        namedJdbcTemplate.batchUpdate(
+                "INSERT INTO product (name, description, price, quantity, category, created_at, updated_at) " +
+                        "VALUES (:name, :description, :price, :quantity, :category, :timestamp, :timestamp)",
+                rows, keyHolder, new String[]{"id"});
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.get("id")).longValue())
+                .toList();
+    }
+
+    /**
+     * Decrements stock with a single conditional UPDATE and returns the new stock level. Empty when the product
+     * does not exist or has fewer than {@code amount} units left.
+     */
+    public Optional<ProductStock> decrementQuantity(Long id, int amount, LocalDateTime timestamp) {
+        return adjustQuantity("UPDATE product SET quantity = quantity - ?, updated_at = ?, version = version + 1 "
+                + "WHERE id = ? AND quantity >= ?", amount, timestamp, id, amount);
+    }
+
+    /**
+     * Increments stock with a single UPDATE and returns the new stock level. Empty when the product does not
+     * exist or the quantity would overflow.
+     */
+    public Optional<ProductStock> incrementQuantity(Long id, int amount, LocalDateTime timestamp) {
+        return adjustQuantity("UPDATE product SET quantity = quantity + ?, updated_at = ?, version = version + 1 "
+                + "WHERE id = ? AND quantity <= " + Integer.MAX_VALUE + " - ?", amount, timestamp, id, amount);
+    }
+
+    /**
+     * Applies the non-null fields of {@code patch} with one UPDATE and returns the updated row. When
+     * {@code expectedVersion} is set the row must still be at that version. Empty when no row matched.
+     * A category change first locks the row to read the category it is moving out of.
+     */
+    @Transactional
+    public Optional<PatchedProduct> patch(Long id, ProductPatchRequest patch, Long expectedVersion,
+                                          LocalDateTime timestamp) {
+        String previousCategory = null;
+        if (patch.getCategory() != null) {
+            List<String> current = jdbcTemplate.queryForList("SELECT category FROM product WHERE id = ? FOR UPDATE",
+                    String.class, id);
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            previousCategory = current.get(0);
+        }
+
+        StringBuilder update = new StringBuilder("UPDATE product SET updated_at = :timestamp, version = version + 1");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("timestamp", timestamp);
+        setIfPresent(update, params, "name", patch.getName());
+        setIfPresent(update, params, "description", patch.getDescription());
+        setIfPresent(update, params, "price", patch.getPrice());
+        setIfPresent(update, params, "quantity", patch.getQuantity());
+        setIfPresent(update, params, "category", patch.getCategory());
+
+        update.append(" WHERE id = :id");
+        if (expectedVersion != null) {
+            update.append(" AND version = :version");
+            params.addValue("version", expectedVersion);
+        }
+
+        String movedFrom = previousCategory;
+        return namedJdbcTemplate.query("SELECT " + ProductRows.COLUMNS + " FROM FINAL TABLE (" + update + ")", params,
+                        (rs, rowNum) -> new PatchedProduct(mapRow(rs), movedFrom))
+                .stream()
+                .findFirst();
+    }
+
+    private static void setIfPresent(StringBuilder update, MapSqlParameterSource params, String column, Object value) {
+        if (value != null) {
+            update.append(", ").append(column).append(" = :").append(column);
+            params.addValue(column, value);
+        }
+    }
+
+    /**
+     * Deletes the product only if it is still at {@code version}, leaving a tombstone for the changes feed;
+     * returns whether a row was deleted.
+     */
+    @Transactional
+    public boolean deleteIfVersion(Long id, long version, LocalDateTime timestamp) {
+        if (jdbcTemplate.update("DELETE FROM product WHERE id = ? AND version = ?", id, version) != 1) {
+            return false;
+        }
+        recordTombstones(List.of(id), timestamp);
+        return true;
+    }
+
+    /**
+     * Records deletes for the changes feed; callers run it in the transaction that deleted the rows.
+     */
+    public void recordTombstones(Collection<Long> ids, LocalDateTime timestamp) {
+        jdbcTemplate.batchUpdate("INSERT INTO product_tombstone (product_id, deleted_at) VALUES (?, ?)",
+                ids.stream().map(id -> new Object[]{id, timestamp}).toList());
+    }
+
+    /**
+     * Removes tombstones older than {@code cutoff}; returns how many were removed.
+     */
+    public int purgeTombstonesBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM product_tombstone WHERE deleted_at < ?", cutoff);
+    }
+
+    public Optional<ProductStock> findStock(Long id) {
+        return jdbcTemplate.query("SELECT id, quantity, category, version FROM product WHERE id = ?",
+                        (rs, rowNum) -> mapStock(rs), id)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Stock levels of the products in {@code category} with at most {@code maxQuantity} units.
+     */
+    public List<ProductStock> findStockAtMost(String category, int maxQuantity) {
+        return jdbcTemplate.query("SELECT id, quantity, category, version FROM product WHERE category = ? "
+                + "AND quantity <= ? ORDER BY id", (rs, rowNum) -> mapStock(rs), category, maxQuantity);
+    }
+
+    /**
+     * Up to {@code limit} changes and deletes with a (changed at, id) key after the given one and a timestamp
+     * no later than {@code upTo}, in key order.
+     */
+    public List<ProductChange> findChangesAfter(LocalDateTime changedAt, long afterId, LocalDateTime upTo, int limit) {
+        return jdbcTemplate.query(CHANGES_AFTER, (rs, rowNum) -> {
+            if (rs.getBoolean("deleted")) {
+                return ProductChange.builder()
+                        .productId(rs.getLong("id"))
+                        .deleted(true)
+                        .changedAt(rs.getObject("updated_at", LocalDateTime.class))
+                        .build();
+            }
+            ProductDto product = mapRow(rs);
+            return ProductChange.builder()
+                    .productId(product.getId())
+                    .changedAt(product.getUpdatedAt())
+                    .product(product)
+                    .build();
+        }, changedAt, changedAt, afterId, upTo, limit, changedAt, changedAt, afterId, upTo, limit, limit);
+    }
+
+    public long countMatching(String category, Integer maxQuantity) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> conditions = filter(category, maxQuantity, params);
+        return namedJdbcTemplate.queryForObject("SELECT COUNT(*) FROM product"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)), params, Long.class);
+    }
+
+    /**
+     * Next chunk of ids matching the filter in id order, starting after {@code afterId}. Null filter values
+     * are ignored.
+     */
+    public List<Long> findIdsAfter(String category, Integer maxQuantity, long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        List<String> conditions = filter(category, maxQuantity, params);
+        conditions.add(0, "id > :afterId");
+        return namedJdbcTemplate.queryForList("SELECT id FROM product WHERE " + String.join(" AND ", conditions)
+                + " ORDER BY id LIMIT :limit", params, Long.class);
+    }
+
+    /**
+     * Deletes the given products in one statement, leaving tombstones for the changes feed, and returns the ids
+     * that actually existed.
+     */
+    public List<Long> deleteByIds(Collection<Long> ids, LocalDateTime timestamp) {
+        return deleteMatching(ids, null, null, timestamp);
+    }
+
+    /**
+     * Like {@link #deleteByIds}, but only deletes the given products that still match the filter, so a row
+     * changed since its id was selected by {@link #findIdsAfter} is kept. Null filter values are ignored.
+     */
+    @Transactional
+    public List<Long> deleteMatching(Collection<Long> ids, String category, Integer maxQuantity,
+                                     LocalDateTime timestamp) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids);
+        List<String> conditions = filter(category, maxQuantity, params);
+        conditions.add(0, "id IN (:ids)");
+        List<Long> deleted = namedJdbcTemplate.queryForList("SELECT id FROM OLD TABLE (DELETE FROM product WHERE "
+                + String.join(" AND ", conditions) + ")", params, Long.class);
+        if (!deleted.isEmpty()) {
+            recordTombstones(deleted, timestamp);
+        }
+        return deleted;
+    }
+
+    /**
+     * Multiplies the price of the given products still in {@code category} (any category when null) by
+     * {@code factor}, rounded to cents. Returns the new prices and versions of the updated products by id; rows whose
+     * new price would fall outside the column's positive range are left alone.
+     */
+    public Map<Long, ProductPrice> multiplyPrices(Collection<Long> ids, String category, BigDecimal factor,
+                                                LocalDateTime timestamp) {
+        return updatePrices("ROUND(price * :factor, 2)", new MapSqlParameterSource("factor", factor), ids, category,
+                timestamp);
+    }
+
+    /**
+     * Adds {@code amount} to the price of the given products, with the same filter and guard as
+     * {@link #multiplyPrices}.
+     */
+    public Map<Long, ProductPrice> addToPrices(Collection<Long> ids, String category, BigDecimal amount,
+                                             LocalDateTime timestamp) {
+        return updatePrices("price + :amount", new MapSqlParameterSource("amount", amount), ids, category, timestamp);
+    }
+
+    private Map<Long, ProductPrice> updatePrices(String newPrice, MapSqlParameterSource params, Collection<Long> ids,
+                                               String category, LocalDateTime timestamp) {
+        params.addValue("ids", ids).addValue("timestamp", timestamp);
+        List<String> conditions = filter(category, null, params);
+        conditions.add(0, "id IN (:ids)");
+        conditions.add(newPrice + " BETWEEN 0.01 AND 99999999.99");
+        Map<Long, ProductPrice> prices = new LinkedHashMap<>();
+        namedJdbcTemplate.query("SELECT id, price, version FROM FINAL TABLE (UPDATE product SET price = " + newPrice
+                        + ", updated_at = :timestamp, version = version + 1 WHERE "
+                        + String.join(" AND ", conditions) + ")", params,
+                rs -> {
+                    prices.put(rs.getLong("id"), new ProductPrice(rs.getLong("id"), rs.getBigDecimal("price"),
+                            rs.getLong("version")));
+                });
+        return prices;
+    }
+
+    private static List<String> filter(String category, Integer maxQuantity, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        if (category != null) {
+            conditions.add("category = :category");
+            params.addValue("category", category);
+        }
+        if (maxQuantity != null) {
+            conditions.add("quantity <= :maxQuantity");
+            params.addValue("maxQuantity", maxQuantity);
+        }
+        return conditions;
+    }
+
+    private Optional<ProductStock> adjustQuantity(String update, Object... args) {
+        // H2 data change delta table: the UPDATE and the read of the new value are one round trip
+        return jdbcTemplate.query("SELECT id, quantity, category, version FROM FINAL TABLE (" + update + ")",
+                        (rs, rowNum) -> mapStock(rs), args)
+                .stream()
+                .findFirst();
+    }
+
+    private static ProductStock mapStock(ResultSet rs) throws SQLException {
+        return new ProductStock(rs.getLong("id"), rs.getInt("quantity"), rs.getString("category"), rs.getLong("version"));
+    }
+
+    private static ProductDto mapRow(ResultSet rs) throws SQLException {
+        return ProductRows.map(rs::getObject);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ing.store_management.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Price of a product right after a bulk price change, with the version that change gave the row.
+ */
+public record ProductPrice(Long productId, BigDecimal price, Long version) {
+}
@@ -0,0 +1,87 @@
+package com.ing.store_management.repository;
+
+import com.ing.store_management.dto.ProductDto;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * R2DBC access to the product table for the reactive read API. The connection factory is built here rather
+ * than exposed as a bean: a {@code ConnectionFactory} bean would switch off the JDBC DataSource that JPA,
+ * Flyway and the rest of the application run on. It points at the same H2 database as the DataSource.
+ */
+@Repository
+@Slf4j
+public class ProductReactiveRepository {
+
+    private static final String SELECT_PRODUCT = "SELECT " + ProductRows.COLUMNS + " FROM product";
+
+    private final DatabaseClient databaseClient;
+
+    public ProductReactiveRepository(@Value("${spring.datasource.url}") String jdbcUrl,
+                                     @Value("${spring.datasource.username:sa}") String username,
+                                     @Value("${spring.datasource.password:}") String password) {
+        if (!jdbcUrl.startsWith("jdbc:h2:")) {
+            throw new IllegalStateException("Reactive product reads need an R2DBC driver for " + jdbcUrl);
+        }
+        H2ConnectionConfiguration configuration = H2ConnectionConfiguration.builder()
+                .url(jdbcUrl.substring("jdbc:h2:".length()))
+                .username(username)
+                .password(password)
+                .build();
+        this.databaseClient = DatabaseClient.create(new H2ConnectionFactory(configuration));
+        log.info("Reactive product repository connected to {}", jdbcUrl);
+    }
+
+    public Mono<ProductDto> findById(Long id) {
+        return query(databaseClient.sql(SELECT_PRODUCT + " WHERE id = :id")
+                .bind("id", id))
+                .singleOrEmpty();
+    }
+
+    /**
+     * All products after {@code afterId} in id order. Rows are fetched as the subscriber requests them.
+     */
+    public Flux<ProductDto> findAllAfter(long afterId) {
+        return query(databaseClient.sql(SELECT_PRODUCT + " WHERE id > :afterId ORDER BY id")
+                .bind("afterId", afterId));
+    }
+
+    public Flux<ProductDto> findByCategory(String category, Pageable pageable) {
+        return query(databaseClient.sql(SELECT_PRODUCT + " WHERE category = :category ORDER BY id"
+                        + " LIMIT :limit OFFSET :offset")
+                .bind("category", category)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset()));
+    }
+
+    /**
+     * Case-insensitive substring match on the name, with the same semantics as
+     * {@link ProductRepository#findProductDtosByNameContaining}.
+     */
+    public Flux<ProductDto> findByNameContaining(String name, Pageable pageable) {
+        return query(databaseClient.sql(SELECT_PRODUCT + " WHERE UPPER(name) LIKE UPPER(:pattern) ESCAPE '\\'"
+                        + " ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("pattern", "%" + escapeLike(name) + "%")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset()));
+    }
+
+    private static Flux<ProductDto> query(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.map((row, metadata) -> ProductRows.map(row::get))
+                .all()
+                // H2's R2DBC driver runs the embedded engine on the subscribing thread; keep that off request threads
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
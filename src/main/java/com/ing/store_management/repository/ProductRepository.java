@@ -1,22 +1,101 @@
 package com.ing.store_management.repository;
 
+import com.ing.store_management.dto.ProductDto;
 import com.ing.store_management.model.Product;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByCategory(String category);
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+
+    // Read paths select straight into the DTO: no managed entities, no dirty-checking snapshots
+    String SELECT_PRODUCT_DTO = "SELECT new com.ing.store_management.dto.ProductDto(p.id, p.name, p.description, "
+            + "p.price, p.quantity, p.category, p.createdAt, p.updatedAt, p.version) FROM Product p";
+
+    // Callers do cache or index work around these lookups, so the read-only transaction spans just the query
+    @Transactional(readOnly = true)
+    @Query(SELECT_PRODUCT_DTO + " WHERE p.id = :id")
+    Optional<ProductDto> findProductDtoById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query(SELECT_PRODUCT_DTO + " WHERE p.id IN :ids")
+    List<ProductDto> findProductDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = SELECT_PRODUCT_DTO, countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductDto> findAllProductDtos(Pageable pageable);
+
+    // Listings below return count-free slices; callers that need totals run the matching count query
+    @Query(SELECT_PRODUCT_DTO + " WHERE p.category = :category ORDER BY p.id")
+    Slice<ProductDto> findProductDtosByCategory(@Param("category") String category, Pageable pageable);
+
+    @Query("SELECT new com.ing.store_management.repository.ProductVersion(p.id, p.version) "
+            + "FROM Product p WHERE p.category = :category ORDER BY p.id")
+    Slice<ProductVersion> findVersionsByCategory(@Param("category") String category, Pageable pageable);
+
+    long countByCategory(String category);
 
     List<Product> findByName(String name);
-    Optional<Product> findByNameIgnoreCase(String name);
 
-    List<Product> findByNameContainingIgnoreCase(String name);
+    @Query(value = "SELECT * FROM product WHERE name_key = LOWER(:name)", nativeQuery = true)
+    Optional<Product> findByNameIgnoreCase(@Param("name") String name);
+
+    @Query(SELECT_PRODUCT_DTO + " WHERE UPPER(p.name) LIKE UPPER(CONCAT('%', :#{escape(#name)}, '%')) "
+            + "ESCAPE :#{escapeCharacter()} ORDER BY p.id")
+    Slice<ProductDto> findProductDtosByNameContaining(@Param("name") String name, Pageable pageable);
+
+    long countByNameContainingIgnoreCase(String name);
+
+    @Query(SELECT_PRODUCT_DTO + " WHERE p.quantity > 0 ORDER BY p.id")
+    Slice<ProductDto> findAvailableProductDtos(Pageable pageable);
+
+    @Query("SELECT new com.ing.store_management.repository.ProductVersion(p.id, p.version) "
+            + "FROM Product p WHERE p.quantity > 0 ORDER BY p.id")
+    Slice<ProductVersion> findAvailableVersions(Pageable pageable);
+
+    long countByQuantityGreaterThan(int quantity);
+
+    /**
+     * One keyset window in {@code sort} order. Spring Data resumes with {@code key > k OR (key = k AND id > i)},
+     * which H2 cannot seek on, so the first sort key is also bounded on its own to make the window a range
+     * scan of the (key, id) index.
+     */
+    default Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit) {
+        return findBy(keysetBound(position, sort), query -> query.sortBy(sort).limit(limit.max()).scroll(position));
+    }
+
+    @Query("SELECT p.quantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findQuantityById(@Param("id") Long id);
 
-    @Query("SELECT p FROM Product p WHERE p.quantity > 0")
-    List<Product> findAvailableProducts();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Specification<Product> keysetBound(ScrollPosition position, Sort sort) {
+        Sort.Order first = sort.iterator().next();
+        Object key = position instanceof KeysetScrollPosition keyset && keyset.scrollsForward()
+                ? keyset.getKeys().get(first.getProperty()) : null;
+        return (root, query, cb) -> {
+            if (key == null) {
+                return null;
+            }
+            Expression<Comparable> path = root.get(first.getProperty());
+            return first.isAscending() ? cb.greaterThanOrEqualTo(path, (Comparable) key)
+                    : cb.lessThanOrEqualTo(path, (Comparable) key);
+        };
+    }
 }
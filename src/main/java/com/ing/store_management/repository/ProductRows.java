@@ -0,0 +1,40 @@
+package com.ing.store_management.repository;
+
+import com.ing.store_management.dto.ProductDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Column list and row-to-DTO mapping shared by the JDBC and R2DBC repositories, so both read the product
+ * table the same way.
+ */
+final class ProductRows {
+
+    static final String COLUMNS = "id, name, description, price, quantity, category, created_at, updated_at, version";
+
+    /**
+     * Typed column access; both {@code ResultSet::getObject} and R2DBC's {@code Row::get} fit.
+     */
+    @FunctionalInterface
+    interface ColumnReader<X extends Exception> {
+        <T> T get(String column, Class<T> type) throws X;
+    }
+
+    private ProductRows() {
+    }
+
+    static <X extends Exception> ProductDto map(ColumnReader<X> row) throws X {
+        return ProductDto.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .price(row.get("price", BigDecimal.class))
+                .quantity(row.get("quantity", Integer.class))
+                .category(row.get("category", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,7 @@
+package com.ing.store_management.repository;
+
+/**
+ * Stock level of a product right after a change, with the category and version that change listeners need.
+ */
+public record ProductStock(Long productId, Integer quantity, String category, Long version) {
+}
@@ -0,0 +1,7 @@
+package com.ing.store_management.repository;
+
+/**
+ * Id and optimistic-lock version of a product; enough to derive a listing ETag without loading rows.
+ */
+public record ProductVersion(Long id, Long version) {
+}
@@ -0,0 +1,83 @@
+package com.ing.store_management.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh tokens, looked up by the digest of the token the client presents.
+ */
+@Repository
+public class RefreshTokenJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RefreshTokenJdbcRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public void insert(byte[] tokenHash, UUID familyId, long userId, LocalDateTime issuedAt, LocalDateTime expiresAt) {
+        jdbcTemplate.update("INSERT INTO refresh_token (token_hash, family_id, user_id, issued_at, expires_at) "
+                + "VALUES (?, ?, ?, ?, ?)", tokenHash, familyId, userId, issuedAt, expiresAt);
+    }
+
+    public Optional<RefreshTokenRecord> findByHash(byte[] tokenHash) {
+        return jdbcTemplate.query("""
+                        SELECT t.id, t.family_id, t.user_id, u.username, u.role, u.security_stamp, u.is_enabled,
+                               t.expires_at, t.used_at, t.revoked_at
+                        FROM refresh_token t JOIN users u ON u.id = t.user_id
+                        WHERE t.token_hash = ?""",
+                        (rs, rowNum) -> new RefreshTokenRecord(
+                                rs.getLong("id"),
+                                rs.getObject("family_id", UUID.class),
+                                rs.getLong("user_id"),
+                                rs.getString("username"),
+                                rs.getString("role"),
+                                rs.getInt("security_stamp"),
+                                rs.getBoolean("is_enabled"),
+                                rs.getObject("expires_at", LocalDateTime.class),
+                                rs.getObject("used_at", LocalDateTime.class),
+                                rs.getObject("revoked_at", LocalDateTime.class)),
+                        tokenHash)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Marks {@code current} used and stores its successor in the same family. Returns false, writing nothing,
+     * when the token was already used or revoked, which includes losing a race with another refresh.
+     */
+    @Transactional
+    public boolean rotate(RefreshTokenRecord current, byte[] nextHash, LocalDateTime timestamp,
+                          LocalDateTime expiresAt) {
+        if (jdbcTemplate.update("UPDATE refresh_token SET used_at = ? "
+                + "WHERE id = ? AND used_at IS NULL AND revoked_at IS NULL", timestamp, current.id()) != 1) {
+            return false;
+        }
+        insert(nextHash, current.familyId(), current.userId(), timestamp, expiresAt);
+        return true;
+    }
+
+    public int revokeFamily(UUID familyId, LocalDateTime timestamp) {
+        return jdbcTemplate.update("UPDATE refresh_token SET revoked_at = ? "
+                + "WHERE family_id = ? AND revoked_at IS NULL", timestamp, familyId);
+    }
+
+    public int revokeByUser(long userId, LocalDateTime timestamp) {
+        return jdbcTemplate.update("UPDATE refresh_token SET revoked_at = ? "
+                + "WHERE user_id = ? AND revoked_at IS NULL", timestamp, userId);
+    }
+
+    /**
+     * Removes at most {@code batchSize} tokens that expired before {@code cutoff}; returns how many were removed.
+     */
+    public int purgeExpiredBefore(LocalDateTime cutoff, int batchSize) {
+        return jdbcTemplate.update("DELETE FROM refresh_token WHERE expires_at < ? FETCH FIRST ? ROWS ONLY",
+                cutoff, batchSize);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ing.store_management.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A stored refresh token with the current name, role, security stamp and status of its user, read in one lookup.
+ */
+public record RefreshTokenRecord(long id, UUID familyId, long userId, String username, String role,
+                                 int securityStamp, boolean userEnabled, LocalDateTime expiresAt,
+                                 LocalDateTime usedAt, LocalDateTime revokedAt) {
+
+    /** Already exchanged for a successor: presenting it again means it was copied. */
+    public boolean isUsed() {
+        return usedAt != null;
+    }
+
+    /** Ended by logout, a reuse alarm or an account change; presenting it again is expected. */
+    public boolean isRevoked() {
+        return revokedAt != null;
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+}
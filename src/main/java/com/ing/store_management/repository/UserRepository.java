@@ -3,6 +3,8 @@ package com.ing.store_management.repository;
 import com.ing.store_management.model.Product;
 import com.ing.store_management.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +23,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.securityStamp FROM User u WHERE u.username = :username")
+    Optional<Integer> findSecurityStampByUsername(@Param("username") String username);
 }
@@ -0,0 +1,157 @@
+package com.ing.store_management.search;
+
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.LongHeap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass over the documents matching the name query. Applies the category, price and stock filters from
+ * doc values, counts both facets and keeps the lowest matching ids for the requested page. Each facet is counted
+ * with every filter except its own, so the sidebar still offers the other categories and price ranges.
+ */
+final class ProductFacetCollector extends SimpleCollector {
+
+    private final List<BytesRef> selectedCategories;
+    private final long minPriceCents;
+    private final long maxPriceCents;
+    private final boolean availableOnly;
+    private final long[] priceRangeBounds;
+
+    private final LongHeap lowestIds;
+    private final Map<String, Long> categoryCounts = new HashMap<>();
+    private final long[] priceRangeCounts;
+    private long totalHits;
+
+    private SortedDocValues categories;
+    private NumericDocValues prices;
+    private NumericDocValues quantities;
+    private NumericDocValues ids;
+    private boolean[] selectedOrds;
+    private long[] leafCategoryCounts;
+
+    ProductFacetCollector(Collection<String> selectedCategories, long minPriceCents, long maxPriceCents,
+                          boolean availableOnly, long[] priceRangeBounds, int maxIds) {
+        this.selectedCategories = selectedCategories.stream().map(BytesRef::new).toList();
+        this.minPriceCents = minPriceCents;
+        this.maxPriceCents = maxPriceCents;
+        this.availableOnly = availableOnly;
+        this.priceRangeBounds = priceRangeBounds;
+        this.priceRangeCounts = new long[priceRangeBounds.length + 1];
+        // Min-heap of negated ids: the entry on top is the largest id kept so far and the first to be replaced
+        this.lowestIds = new LongHeap(maxIds);
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    @Override
+    protected void doSetNextReader(LeafReaderContext context) throws IOException {
+        flushCategoryCounts();
+        categories = DocValues.getSorted(context.reader(), ProductSearchIndex.CATEGORY_FACET);
+        prices = DocValues.getNumeric(context.reader(), ProductSearchIndex.PRICE_CENTS);
+        quantities = DocValues.getNumeric(context.reader(), ProductSearchIndex.QUANTITY);
+        ids = DocValues.getNumeric(context.reader(), ProductSearchIndex.ID_VALUE);
+
+        // Ordinals are per segment, so the selected categories are resolved again for every segment
+        leafCategoryCounts = new long[categories.getValueCount()];
+        selectedOrds = null;
+        if (!selectedCategories.isEmpty()) {
+            selectedOrds = new boolean[categories.getValueCount()];
+            for (BytesRef category : selectedCategories) {
+                int ord = categories.lookupTerm(category);
+                if (ord >= 0) {
+                    selectedOrds[ord] = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void collect(int doc) throws IOException {
+        if (!categories.advanceExact(doc) || !prices.advanceExact(doc)) {
+            return;
+        }
+        if (availableOnly && (!quantities.advanceExact(doc) || quantities.longValue() <= 0)) {
+            return;
+        }
+
+        int ord = categories.ordValue();
+        long price = prices.longValue();
+        boolean inCategory = selectedOrds == null || selectedOrds[ord];
+        boolean inPriceRange = price >= minPriceCents && price <= maxPriceCents;
+
+        if (inPriceRange) {
+            leafCategoryCounts[ord]++;
+        }
+        if (inCategory) {
+            priceRangeCounts[priceRange(price)]++;
+        }
+        if (inCategory && inPriceRange && ids.advanceExact(doc)) {
+            totalHits++;
+            lowestIds.insertWithOverflow(-ids.longValue());
+        }
+    }
+
+    long totalHits() {
+        return totalHits;
+    }
+
+    Map<String, Long> categoryCounts() throws IOException {
+        flushCategoryCounts();
+        return categoryCounts;
+    }
+
+    List<Long> priceRangeCounts() {
+        return Arrays.stream(priceRangeCounts).boxed().toList();
+    }
+
+    /**
+     * Matching ids in ascending order, skipping the first {@code offset}.
+     */
+    List<Long> ids(int offset) {
+        long[] ascending = new long[lowestIds.size()];
+        for (int i = ascending.length - 1; i >= 0; i--) {
+            ascending[i] = -lowestIds.pop();
+        }
+        List<Long> page = new ArrayList<>(Math.max(0, ascending.length - offset));
+        for (int i = offset; i < ascending.length; i++) {
+            page.add(ascending[i]);
+        }
+        return page;
+    }
+
+    private int priceRange(long price) {
+        int range = 0;
+        while (range < priceRangeBounds.length && price >= priceRangeBounds[range]) {
+            range++;
+        }
+        return range;
+    }
+
+    private void flushCategoryCounts() throws IOException {
+        if (leafCategoryCounts == null) {
+            return;
+        }
+        for (int ord = 0; ord < leafCategoryCounts.length; ord++) {
+            if (leafCategoryCounts[ord] > 0) {
+                categoryCounts.merge(categories.lookupOrd(ord).utf8ToString(), leafCategoryCounts[ord], Long::sum);
+            }
+        }
+        leafCategoryCounts = null;
+    }
+}
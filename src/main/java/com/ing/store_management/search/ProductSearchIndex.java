@@ -0,0 +1,546 @@
+package com.ing.store_management.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.repository.ProductPrice;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollectorManager;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Embedded Lucene index over product name, description and category. Writes are visible to searches
+ * as soon as they return (near-real-time reader refresh); commits to disk happen in the background.
+ * Category, price and stock are also kept as doc values for faceted queries; stock and price changes
+ * update those in place and become visible on the next background refresh.
+ * <p>
+ * A rebuild rewrites documents in place under a new generation and only then drops older generations, so
+ * searches keep seeing the previous contents while it runs and a failed rebuild leaves them in place.
+ * <p>
+ * Writes arrive after their transactions commit, in no particular order. Each document carries the product
+ * version, and a write older than what is already indexed for that product is dropped, so a late write cannot
+ * bring back an older name, price or stock level.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String CATEGORY = "category";
+    static final String ID_VALUE = "id_value";
+    static final String CATEGORY_FACET = "category_facet";
+    static final String PRICE_CENTS = "price_cents";
+    static final String QUANTITY = "quantity";
+    private static final String GENERATION = "generation";
+    static final String VERSION = "version";
+    // A deleted product never comes back: ids are not reused
+    private static final long DELETED = Long.MAX_VALUE;
+
+    // Commit user data: the rebuild generation, whether the index holds a complete rebuild, and when it committed
+    private static final String GENERATION_KEY = "generation";
+    private static final String REBUILT_KEY = "rebuilt";
+    private static final String COMMITTED_AT_KEY = "committedAt";
+
+    private static final int LOCK_STRIPES = 64;
+    // Versions written recently, which the searcher may not show yet; older ones are read from the index
+    private static final int RECENT_VERSIONS = 100_000;
+    private static final Duration RECENT_VERSION_TTL = Duration.ofMinutes(5);
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FSDirectory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ScheduledExecutorService committer;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private final AtomicLong generation;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private final Cache<Long, Long> recentVersions = Caffeine.newBuilder()
+            .maximumSize(RECENT_VERSIONS)
+            .expireAfterWrite(RECENT_VERSION_TTL)
+            .build();
+    private final LocalDateTime openedCommitAt;
+    private volatile boolean rebuilt;
+    // Ids written by live updates while a rebuild runs; the rebuild must not overwrite them with what it read
+    private volatile Set<Long> touchedDuringRebuild;
+
+    public record SearchHits(List<Long> ids, long totalHits) {
+    }
+
+    /**
+     * Filters for {@link #facetedSearch}. {@code name} matches whole name words, the last one as a prefix;
+     * price bounds are inclusive and either may be null. {@code priceRangeBounds} are the ascending
+     * boundaries between the price facet ranges.
+     */
+    public record FacetQuery(String name, Set<String> categories, BigDecimal minPrice, BigDecimal maxPrice,
+                             boolean availableOnly, List<BigDecimal> priceRangeBounds) {
+    }
+
+    /**
+     * One page of matching ids in id order, the total, and facet counts. Category counts ignore the category
+     * filter and price range counts ignore the price filter.
+     */
+    public record FacetedHits(List<Long> ids, long totalHits, Map<String, Long> categoryCounts,
+                              List<Long> priceRangeCounts) {
+    }
+
+    public ProductSearchIndex(@Value("${app.search.index-dir}") Path indexDir,
+                              @Value("${app.search.commit-interval:5s}") Duration commitInterval,
+                              @Value("${app.search.refresh-interval:1s}") Duration refreshInterval) throws IOException {
+        this.directory = FSDirectory.open(indexDir);
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+
+        Map<String, String> commitData = new HashMap<>();
+        if (writer.getLiveCommitData() != null) {
+            writer.getLiveCommitData().forEach(entry -> commitData.put(entry.getKey(), entry.getValue()));
+        }
+        this.generation = new AtomicLong(Long.parseLong(commitData.getOrDefault(GENERATION_KEY, "0")));
+        this.rebuilt = Boolean.parseBoolean(commitData.get(REBUILT_KEY));
+        this.openedCommitAt = commitData.containsKey(COMMITTED_AT_KEY)
+                ? LocalDateTime.parse(commitData.get(COMMITTED_AT_KEY)) : null;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-index-committer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        committer.scheduleWithFixedDelay(this::commitIfDirty, commitInterval.toMillis(), commitInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        committer.scheduleWithFixedDelay(this::refreshIfStale, refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("Product search index opened at {}", indexDir);
+    }
+
+    public void index(ProductDto product) {
+        index(List.of(product));
+    }
+
+    public void index(Collection<ProductDto> products) {
+        try {
+            for (ProductDto product : products) {
+                writeLive(product.getId(), versionOf(product), () -> writer.updateDocument(idTerm(product.getId()),
+                        toDocument(product, generation.get())));
+            }
+            changed();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index products", e);
+        }
+    }
+
+    public void delete(Long id) {
+        delete(List.of(id));
+    }
+
+    public void delete(Collection<Long> ids) {
+        try {
+            for (Long id : ids) {
+                writeLive(id, DELETED, () -> writer.deleteDocuments(idTerm(id)));
+            }
+            changed();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove products from index", e);
+        }
+    }
+
+    /**
+     * Updates the stock level used by faceted queries without reindexing the product's text. {@code version} is
+     * the product version the stock change produced.
+     */
+    public void updateQuantity(Long id, int quantity, long version) {
+        try {
+            writeLive(id, version, () -> writer.updateDocValues(idTerm(id),
+                    new NumericDocValuesField(QUANTITY, quantity), new NumericDocValuesField(VERSION, version)));
+            docValuesChanged();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to update product stock in index", e);
+        }
+    }
+
+    public void updatePrices(Collection<ProductPrice> prices) {
+        try {
+            for (ProductPrice price : prices) {
+                writeLive(price.productId(), price.version(), () -> writer.updateDocValues(idTerm(price.productId()),
+                        new NumericDocValuesField(PRICE_CENTS, cents(price.price())),
+                        new NumericDocValuesField(VERSION, price.version())));
+            }
+            docValuesChanged();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to update product prices in index", e);
+        }
+    }
+
+    /**
+     * Reindexes every product the source supplies. Live writes keep going to the same index meanwhile and win
+     * over what the rebuild read; documents the source did not supply are dropped once it has finished.
+     */
+    public synchronized long rebuild(Consumer<Consumer<ProductDto>> source) {
+        long start = System.nanoTime();
+        long rebuildGeneration = generation.incrementAndGet();
+        Set<Long> touched = ConcurrentHashMap.newKeySet();
+        long[] count = {0};
+        rebuilt = false;
+        touchedDuringRebuild = touched;
+        try {
+            source.accept(product -> {
+                try {
+                    synchronized (lock(product.getId())) {
+                        if (!touched.contains(product.getId())) {
+                            writer.updateDocument(idTerm(product.getId()), toDocument(product, rebuildGeneration));
+                        }
+                    }
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            BooleanQuery.Builder superseded = new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.FILTER)
+                    .add(LongPoint.newExactQuery(GENERATION, rebuildGeneration), BooleanClause.Occur.MUST_NOT);
+            if (!touched.isEmpty()) {
+                superseded.add(new TermInSetQuery(ID, touched.stream().map(id -> new BytesRef(id.toString())).toList()),
+                        BooleanClause.Occur.MUST_NOT);
+            }
+            writer.deleteDocuments(superseded.build());
+            rebuilt = true;
+            commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to rebuild product index", e);
+        } finally {
+            touchedDuringRebuild = null;
+        }
+        log.info("Rebuilt product search index with {} products in {} ms",
+                count[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return count[0];
+    }
+
+    /**
+     * When the commit this process opened the index from was made. Empty when the index has not completed
+     * a rebuild since, so it may be missing products.
+     */
+    public Optional<LocalDateTime> openedCommitAt() {
+        return rebuilt ? Optional.ofNullable(openedCommitAt) : Optional.empty();
+    }
+
+    public long documentCount() {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.getIndexReader().numDocs();
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to count indexed products", e);
+        }
+    }
+
+    public SearchHits search(String text, int page, int size) {
+        Query query = buildQuery(text);
+        if (query == null) {
+            return new SearchHits(List.of(), 0);
+        }
+
+        int offset = page * size;
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // Count exactly up to the result window so page totals stay meaningful
+                TopDocs topDocs = searcher.search(query,
+                        new TopScoreDocCollectorManager(offset + size, null, MAX_RESULT_WINDOW));
+                List<Long> ids = new ArrayList<>(size);
+                ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+                for (int i = offset; i < scoreDocs.length; i++) {
+                    ids.add(searcher.storedFields().document(scoreDocs[i].doc).getField(ID).numericValue().longValue());
+                }
+                return new SearchHits(ids, topDocs.totalHits.value);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Product search failed", e);
+        }
+    }
+
+    public FacetedHits facetedSearch(FacetQuery facetQuery, int page, int size) {
+        Query query = new MatchAllDocsQuery();
+        if (facetQuery.name() != null && !facetQuery.name().isBlank()) {
+            query = buildNameQuery(facetQuery.name());
+            if (query == null) {
+                return new FacetedHits(List.of(), 0, Map.of(),
+                        Collections.nCopies(facetQuery.priceRangeBounds().size() + 1, 0L));
+            }
+        }
+
+        ProductFacetCollector collector = new ProductFacetCollector(facetQuery.categories(),
+                facetQuery.minPrice() != null ? cents(facetQuery.minPrice()) : Long.MIN_VALUE,
+                facetQuery.maxPrice() != null ? cents(facetQuery.maxPrice()) : Long.MAX_VALUE,
+                facetQuery.availableOnly(),
+                facetQuery.priceRangeBounds().stream().mapToLong(ProductSearchIndex::cents).toArray(),
+                page * size + size);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                searcher.search(query, collector);
+                return new FacetedHits(collector.ids(page * size), collector.totalHits(), collector.categoryCounts(),
+                        collector.priceRangeCounts());
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Faceted product query failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        committer.shutdownNow();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private Query buildQuery(String text) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(NAME, term)), 3f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new TermQuery(new Term(CATEGORY, term)), 1.5f), BooleanClause.Occur.SHOULD)
+                    .add(new TermQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD);
+            if (i == terms.size() - 1) {
+                // The last term is usually still being typed
+                anyField.add(new BoostQuery(new PrefixQuery(new Term(NAME, term)), 2f), BooleanClause.Occur.SHOULD)
+                        .add(new PrefixQuery(new Term(CATEGORY, term)), BooleanClause.Occur.SHOULD);
+            }
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private Query buildNameQuery(String name) {
+        List<String> terms = analyze(name);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < terms.size() - 1; i++) {
+            query.add(new TermQuery(new Term(NAME, terms.get(i))), BooleanClause.Occur.FILTER);
+        }
+        query.add(new PrefixQuery(new Term(NAME, terms.get(terms.size() - 1))), BooleanClause.Occur.FILTER);
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private Document toDocument(ProductDto product, long documentGeneration) {
+        Document document = new Document();
+        document.add(new LongPoint(GENERATION, documentGeneration));
+        document.add(new StringField(ID, product.getId().toString(), Field.Store.NO));
+        document.add(new StoredField(ID, product.getId()));
+        document.add(new NumericDocValuesField(ID_VALUE, product.getId()));
+        document.add(new TextField(NAME, product.getName(), Field.Store.NO));
+        if (product.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, product.getDescription(), Field.Store.NO));
+        }
+        document.add(new TextField(CATEGORY, product.getCategory(), Field.Store.NO));
+        document.add(new SortedDocValuesField(CATEGORY_FACET, new BytesRef(product.getCategory())));
+        document.add(new NumericDocValuesField(PRICE_CENTS, cents(product.getPrice())));
+        document.add(new NumericDocValuesField(QUANTITY, product.getQuantity()));
+        document.add(new NumericDocValuesField(VERSION, versionOf(product)));
+        return document;
+    }
+
+    @FunctionalInterface
+    private interface IndexWrite {
+        void run() throws IOException;
+    }
+
+    /**
+     * Applies a live write unless the product is already indexed at {@code version} or later. The check and the
+     * write happen under the product's stripe lock, so two writes for one product cannot interleave.
+     */
+    private void writeLive(Long id, long version, IndexWrite write) throws IOException {
+        synchronized (lock(id)) {
+            Long indexed = indexedVersion(id);
+            if (indexed != null && indexed >= version) {
+                log.debug("Skipping index write of product {} at version {}; version {} is already indexed",
+                        id, version, indexed);
+                return;
+            }
+            Set<Long> touched = touchedDuringRebuild;
+            if (touched != null) {
+                touched.add(id);
+            }
+            write.run();
+            recentVersions.put(id, version);
+        }
+    }
+
+    private Long indexedVersion(Long id) throws IOException {
+        Long recent = recentVersions.getIfPresent(id);
+        if (recent != null) {
+            return recent;
+        }
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs hits = searcher.search(new TermQuery(idTerm(id)), 1);
+            if (hits.scoreDocs.length == 0) {
+                return null;
+            }
+            int doc = hits.scoreDocs[0].doc;
+            List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+            LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(doc, leaves));
+            NumericDocValues versions = DocValues.getNumeric(leaf.reader(), VERSION);
+            // Documents indexed before versions were stored have none
+            return versions.advanceExact(doc - leaf.docBase) ? versions.longValue() : null;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static long versionOf(ProductDto product) {
+        // Rows inserted by the import have not been read back and are at the initial version
+        return product.getVersion() != null ? product.getVersion() : 0;
+    }
+
+    private Object lock(Long id) {
+        return locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term(ID, id.toString());
+    }
+
+    private void commit() throws IOException {
+        writer.setLiveCommitData(Map.of(
+                GENERATION_KEY, Long.toString(generation.get()),
+                REBUILT_KEY, Boolean.toString(rebuilt),
+                COMMITTED_AT_KEY, LocalDateTime.now().toString()).entrySet());
+        writer.commit();
+    }
+
+    private void changed() throws IOException {
+        dirty.set(true);
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    private void docValuesChanged() {
+        // Doc value updates rewrite the field for the whole segment on refresh, so they are batched
+        dirty.set(true);
+        stale.set(true);
+    }
+
+    void refreshIfStale() {
+        if (stale.getAndSet(false)) {
+            try {
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException | RuntimeException e) {
+                stale.set(true);
+                log.error("Failed to refresh product search index: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private void commitIfDirty() {
+        if (dirty.getAndSet(false)) {
+            try {
+                commit();
+            } catch (IOException | RuntimeException e) {
+                dirty.set(true);
+                log.error("Failed to commit product search index: {}", e.getMessage());
+            }
+        }
+    }
+}
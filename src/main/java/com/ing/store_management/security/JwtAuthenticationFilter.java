@@ -22,7 +22,10 @@ import java.util.List;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final WebAuthenticationDetailsSource DETAILS_SOURCE = new WebAuthenticationDetailsSource();
+
     private final JwtUtil jwtUtil;
+    private final SecurityStampRegistry securityStamps;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -30,23 +33,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = getJwtFromRequest(request);
 
-        if (StringUtils.hasText(token) && jwtUtil.validateToken(token)) {
-            String username = jwtUtil.getUsernameFromToken(token);
-            String role = jwtUtil.getRoleFromToken(token);
+        if (StringUtils.hasText(token)) {
+            // One verification (or cache hit) yields everything the request needs from the token; a stale
+            // stamp means the user's role or status changed since it was issued
+            jwtUtil.verify(token)
+                    .filter(securityStamps::isCurrent)
+                    .ifPresent(principal -> authenticate(request, principal));
+        }
 
-            List<SimpleGrantedAuthority> authorities = List.of(
-                    new SimpleGrantedAuthority("ROLE_" + role)
-            );
+        filterChain.doFilter(request, response);
+    }
 
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(username, null, authorities);
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    private void authenticate(HttpServletRequest request, JwtPrincipal principal) {
+        List<SimpleGrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_" + principal.role())
+        );
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            log.debug("Set authentication for user: {} with role: {}", username, role);
-        }
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal.username(), null, authorities);
+        authentication.setDetails(DETAILS_SOURCE.buildDetails(request));
 
-        filterChain.doFilter(request, response);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        log.debug("Set authentication for user: {} with role: {}", principal.username(), principal.role());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
     }
 
     private String getJwtFromRequest(HttpServletRequest request) {
@@ -0,0 +1,16 @@
+package com.ing.store_management.security;
+
+import java.time.Instant;
+
+/**
+ * What a verified access token vouches for. Immutable, so one instance can be shared by every request that
+ * presents the same token. Tokens issued without a security stamp carry {@link #NO_STAMP}, which never matches.
+ */
+public record JwtPrincipal(String username, String role, int securityStamp, Instant expiresAt) {
+
+    public static final int NO_STAMP = -1;
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -1,76 +1,156 @@
 package com.ing.store_management.security;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
+import java.util.Optional;
 
+/**
+ * Issues and verifies access tokens. The signing key and parser are built once; tokens that verified are
+ * cached by their SHA-256 digest until they expire, so a client reusing its token pays for the signature
+ * check once rather than on every request.
+ */
 @Component
 @Slf4j
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
 
-    @Value("${app.jwt.secret:mySecretKey12345678901234567890123456789012345678901234567890}")
-    private String jwtSecret;
+    public static final String CACHE_NAME = "verified-tokens";
 
-    @Value("${app.jwt.expiration:86400}") // 24 hours in seconds
-    private int jwtExpiration;
+    private static final String ROLE_CLAIM = "role";
+    private static final String STAMP_CLAIM = "stamp";
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final int jwtExpiration;
+    private final Cache<ByteBuffer, JwtPrincipal> verifiedTokens;
+
+    public JwtUtil(@Value("${app.jwt.secret:mySecretKey12345678901234567890123456789012345678901234567890}") String jwtSecret,
+                   @Value("${app.jwt.expiration:86400}") int jwtExpiration, // 24 hours in seconds
+                   @Value("${app.jwt.verified-cache.max-size:10000}") long verifiedCacheSize) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<ByteBuffer, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, JwtPrincipal principal, long currentTime) {
+                        return Math.max(Duration.between(Instant.now(), principal.expiresAt()).toNanos(), 0);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, JwtPrincipal principal, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, JwtPrincipal principal, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Lifetime of the access tokens this issues, in seconds.
+     */
+    public long getExpirationSeconds() {
+        return jwtExpiration;
     }
 
-    public String generateToken(String username, String role) {
+    public String generateToken(String username, String role, int securityStamp) {
         Instant now = Instant.now();
         return Jwts.builder()
                 .setSubject(username)
-                .claim("role", role)
+                .claim(ROLE_CLAIM, role)
+                .claim(STAMP_CLAIM, securityStamp)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(now.plus(jwtExpiration, ChronoUnit.SECONDS)))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return getClaimsFromToken(token).getSubject();
-    }
+    /**
+     * Verifies the signature and expiry of {@code token} at most once while it is cached. Empty when the
+     * token is malformed, forged or expired.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        Instant now = Instant.now();
+        ByteBuffer digest = digest(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached.isExpired(now) ? Optional.empty() : Optional.of(cached);
+        }
 
-    public String getRoleFromToken(String token) {
-        return getClaimsFromToken(token).get("role", String.class);
+        JwtPrincipal principal;
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null) {
+                throw new JwtException("Token has no expiration");
+            }
+            Integer stamp = claims.get(STAMP_CLAIM, Integer.class);
+            principal = new JwtPrincipal(claims.getSubject(), claims.get(ROLE_CLAIM, String.class),
+                    stamp != null ? stamp : JwtPrincipal.NO_STAMP, claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Client input: a stream of forged tokens must not flood the log
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (principal.isExpired(now)) {
+            return Optional.empty();
+        }
+        verifiedTokens.put(digest, principal);
+        return Optional.of(principal);
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        return getClaimsFromToken(token).getExpiration();
+    /**
+     * The principal of {@code token} if it already verified and is still cached; never checks a signature,
+     * so callers that run ahead of authentication can use it on untrusted input for free.
+     */
+    public Optional<JwtPrincipal> cachedPrincipal(String token) {
+        JwtPrincipal cached = verifiedTokens.getIfPresent(digest(token));
+        return cached == null || cached.isExpired(Instant.now()) ? Optional.empty() : Optional.of(cached);
     }
 
-    public boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
     }
 
-    public boolean validateToken(String token) {
+    private static ByteBuffer digest(String token) {
         try {
-            getClaimsFromToken(token);
-            return !isTokenExpired(token);
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
     }
 
-    private Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verifiedTokens, CACHE_NAME);
     }
 }
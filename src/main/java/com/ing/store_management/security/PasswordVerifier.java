@@ -0,0 +1,113 @@
+package com.ing.store_management.security;
+
+import com.ing.store_management.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks passwords on a small dedicated pool instead of the request thread. BCrypt is deliberately slow, so a
+ * burst of logins would otherwise occupy every core and stall unrelated reads. The pool is sized to a CPU budget
+ * and its queue is bounded: when it is full the login is turned away at once with a 429 rather than waiting.
+ */
+@Component
+@Slf4j
+public class PasswordVerifier implements MeterBinder {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final Duration retryAfter;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${app.auth.hash-threads:0}") int hashThreads,
+                            @Value("${app.auth.hash-queue-size:64}") int queueSize,
+                            @Value("${app.auth.retry-after:1s}") Duration retryAfter) {
+        this.passwordEncoder = passwordEncoder;
+        this.threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.retryAfter = retryAfter;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password verification limited to {} threads with {} queued", threads, queueSize);
+    }
+
+    /**
+     * Completes with whether {@code rawPassword} matches {@code encodedPassword}.
+     *
+     * @throws TooManyRequestsException when all hashing threads are busy and the queue is full
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                waitNanos.add(start - queuedAt);
+                try {
+                    return passwordEncoder.matches(rawPassword, encodedPassword);
+                } finally {
+                    hashNanos.add(System.nanoTime() - start);
+                    hashCount.increment();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Rejecting login: {} password checks running and {} queued", threads, executor.getQueue().size());
+            throw new TooManyRequestsException("Too many login attempts in progress, retry shortly", retryAfter);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.password.queue.depth", executor.getQueue(), BlockingQueue::size)
+                .description("Password checks waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password checks currently hashing")
+                .register(registry);
+        FunctionTimer.builder("auth.password.hash", this, v -> v.hashCount.sum(), v -> v.hashNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time spent hashing a login password")
+                .register(registry);
+        FunctionTimer.builder("auth.password.queue.wait", this, v -> v.hashCount.sum(), v -> v.waitNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Time a password check waited for a hashing thread")
+                .register(registry);
+        FunctionCounter.builder("auth.password.rejected", rejected, AtomicLong::get)
+                .description("Logins rejected with 429 because the password check queue was full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ing.store_management.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ing.store_management.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Current security stamp of each user, compared with the stamp in every access token. UserService bumps a
+ * user's stamp on each role or enabled change and reports it here, so tokens issued before the change are
+ * refused on their next request while the check stays a map lookup. A user's stamp is read from the database
+ * the first time one of their tokens is seen, and again when a token carries a newer stamp than the one held
+ * here, since the change was then made by another instance. Usernames not in the database are remembered
+ * briefly so tokens of a deleted user cannot turn every request into a query.
+ */
+@Component
+@Slf4j
+public class SecurityStampRegistry {
+
+    private static final int MAX_UNKNOWN_USERS = 10_000;
+
+    private final UserRepository userRepository;
+    private final ConcurrentMap<String, Integer> stamps = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> unknownUsers;
+
+    public SecurityStampRegistry(UserRepository userRepository,
+                                 @Value("${app.auth.unknown-user-ttl:5s}") Duration unknownUserTtl) {
+        this.userRepository = userRepository;
+        this.unknownUsers = Caffeine.newBuilder()
+                .maximumSize(MAX_UNKNOWN_USERS)
+                .expireAfterWrite(unknownUserTtl)
+                .build();
+    }
+
+    /**
+     * Whether {@code principal} was issued with its user's current stamp. False for unknown users.
+     */
+    public boolean isCurrent(JwtPrincipal principal) {
+        Integer current = stamps.get(principal.username());
+        if (current == null || principal.securityStamp() > current) {
+            current = load(principal.username());
+            if (current == null) {
+                return false;
+            }
+        }
+        if (current != principal.securityStamp()) {
+            log.debug("Rejecting token of user '{}' with stamp {} (current {})", principal.username(),
+                    principal.securityStamp(), current);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records a stamp just written to the database. Stamps only grow, so a late or concurrent update never
+     * brings back an older one.
+     */
+    public void update(String username, int stamp) {
+        unknownUsers.invalidate(username);
+        stamps.merge(username, stamp, Math::max);
+    }
+
+    private Integer load(String username) {
+        if (unknownUsers.getIfPresent(username) != null) {
+            return null;
+        }
+        Integer stamp = userRepository.findSecurityStampByUsername(username)
+                .map(loaded -> stamps.merge(username, loaded, Math::max))
+                .orElse(null);
+        if (stamp == null) {
+            unknownUsers.put(username, Boolean.TRUE);
+        }
+        return stamp;
+    }
+}
@@ -3,25 +3,30 @@ package com.ing.store_management.service;
 import com.ing.store_management.dto.CreateUserRequest;
 import com.ing.store_management.dto.LoginRequest;
 import com.ing.store_management.dto.LoginResponse;
+import com.ing.store_management.dto.RefreshTokenRequest;
 import com.ing.store_management.dto.UserDto;
 import com.ing.store_management.exception.AccountDisabledException;
 import com.ing.store_management.exception.InvalidCredentialsException;
 import com.ing.store_management.model.User;
+import com.ing.store_management.repository.RefreshTokenRecord;
 import com.ing.store_management.repository.UserRepository;
 import com.ing.store_management.security.JwtUtil;
+import com.ing.store_management.security.PasswordVerifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthService {
     private final UserService userService;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
 
     public UserDto register(CreateUserRequest request) {
         log.info("Registering new user: {}", request.getUsername());
@@ -41,7 +46,13 @@ public class AuthService {
         return createdUser;
     }
 
-    public LoginResponse login(LoginRequest request) {
+    /**
+     * Looks the user up on the calling thread and checks the password on the {@link PasswordVerifier} pool;
+     * the returned future completes on that pool.
+     *
+     * @throws com.ing.store_management.exception.TooManyRequestsException when the password check queue is full
+     */
+    public CompletableFuture<LoginResponse> login(LoginRequest request) {
         log.info("Processing login request for user: {}", request.getUsername());
 
         // Find user or throw exception
@@ -56,22 +67,52 @@ public class AuthService {
             throw new AccountDisabledException(request.getUsername());
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            log.warn("Invalid password attempt for user: {}", request.getUsername());
-            throw new InvalidCredentialsException();
-        }
+        return passwordVerifier.matches(request.getPassword(), user.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        log.warn("Invalid password attempt for user: {}", request.getUsername());
+                        throw new InvalidCredentialsException();
+                    }
+
+                    String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name(),
+                            user.getSecurityStamp());
 
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+                    LoginResponse response = LoginResponse.builder()
+                            .token(token)
+                            .expiresIn(jwtUtil.getExpirationSeconds())
+                            .refreshToken(refreshTokenService.issue(user.getId()))
+                            .username(user.getUsername())
+                            .role(user.getRole())
+                            .message("Login successful")
+                            .build();
 
-        LoginResponse response = LoginResponse.builder()
+                    log.info("User '{}' logged in successfully with role: {}", user.getUsername(), user.getRole());
+
+                    return response;
+                });
+    }
+
+    /**
+     * Issues a new access token and rotates the refresh token, without a password check or user entity load.
+     */
+    public LoginResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        RefreshTokenRecord previous = rotation.previous();
+
+        String token = jwtUtil.generateToken(previous.username(), previous.role(), previous.securityStamp());
+        log.debug("Refreshed access token of user '{}'", previous.username());
+
+        return LoginResponse.builder()
                 .token(token)
-                .username(user.getUsername())
-                .role(user.getRole())
-                .message("Login successful")
+                .expiresIn(jwtUtil.getExpirationSeconds())
+                .refreshToken(rotation.refreshToken())
+                .username(previous.username())
+                .role(User.Role.valueOf(previous.role()))
+                .message("Token refreshed")
                 .build();
+    }
 
-        log.info("User '{}' logged in successfully with role: {}", user.getUsername(), user.getRole());
-
-        return response;
+    public void logout(RefreshTokenRequest request) {
+        refreshTokenService.revoke(request.getRefreshToken());
     }
 }
@@ -0,0 +1,357 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.alert.LowStockAlertListener;
+import com.ing.store_management.dto.LowStockAlertDto;
+import com.ing.store_management.dto.LowStockThresholdDto;
+import com.ing.store_management.dto.LowStockThresholdRequest;
+import com.ing.store_management.dto.ProductChangeEvent;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.dto.StockLevelsChangedEvent;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.exception.ProductNotFoundException;
+import com.ing.store_management.repository.LowStockJdbcRepository;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import com.ing.store_management.repository.ProductStock;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Raises low-stock alerts as stock changes instead of scanning the catalog. Every stock-changing path publishes
+ * the new level of the products it touched; each level is checked against the product's threshold, else its
+ * category's, else the configured default. An alert opens at or below the low level and clears only at or above
+ * the higher reset level, so a product hovering around the threshold raises one alert, not one per sale.
+ * <p>
+ * Thresholds and open alerts are held in memory and all evaluation runs on one thread, so checking a stock
+ * change costs no query; the database is written only when an alert opens or clears.
+ */
+@Service
+@Slf4j
+public class LowStockService {
+
+    private record Threshold(int lowLevel, int resetLevel) {
+    }
+
+    private final LowStockJdbcRepository lowStockRepository;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final List<LowStockAlertListener> listeners;
+    private final int hysteresis;
+    private final Threshold defaultThreshold;
+    private final Executor evaluator;
+
+    // Written on the evaluator thread only; concurrent maps so request threads can read them
+    private final Map<Long, Threshold> productThresholds = new ConcurrentHashMap<>();
+    private final Map<String, Threshold> categoryThresholds = new ConcurrentHashMap<>();
+    private final Map<Long, LowStockAlertDto> openAlerts = new ConcurrentHashMap<>();
+    // Last version seen per product, so a change delivered out of order cannot reopen or clear an alert
+    private final Map<Long, Long> lastVersions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LowStockService(LowStockJdbcRepository lowStockRepository,
+                           ProductJdbcRepository productJdbcRepository,
+                           List<LowStockAlertListener> listeners,
+                           @Value("${app.low-stock.default-level:-1}") int defaultLevel,
+                           @Value("${app.low-stock.hysteresis:5}") int hysteresis) {
+        this(lowStockRepository, productJdbcRepository, listeners, defaultLevel, hysteresis,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "low-stock-evaluator");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    LowStockService(LowStockJdbcRepository lowStockRepository,
+                    ProductJdbcRepository productJdbcRepository,
+                    List<LowStockAlertListener> listeners,
+                    int defaultLevel,
+                    int hysteresis,
+                    Executor evaluator) {
+        if (hysteresis < 1) {
+            throw new IllegalArgumentException("app.low-stock.hysteresis must be at least 1");
+        }
+        this.lowStockRepository = lowStockRepository;
+        this.productJdbcRepository = productJdbcRepository;
+        this.listeners = listeners;
+        this.hysteresis = hysteresis;
+        // A negative default level means only products with an explicit threshold are watched
+        this.defaultThreshold = defaultLevel < 0 ? null : new Threshold(defaultLevel, defaultLevel + hysteresis);
+        this.evaluator = evaluator;
+    }
+
+    // After Flyway has run, before the first stock change can be evaluated
+    @EventListener(ContextRefreshedEvent.class)
+    public void loadState() {
+        evaluator.execute(() -> {
+            productThresholds.clear();
+            categoryThresholds.clear();
+            for (LowStockThresholdDto threshold : lowStockRepository.findThresholds()) {
+                Threshold levels = new Threshold(threshold.getLowLevel(), threshold.getResetLevel());
+                if (threshold.getProductId() != null) {
+                    productThresholds.put(threshold.getProductId(), levels);
+                } else {
+                    categoryThresholds.put(threshold.getCategory(), levels);
+                }
+            }
+            openAlerts.clear();
+            lowStockRepository.findOpenAlerts().forEach(alert -> openAlerts.put(alert.getProductId(), alert));
+            log.info("Low-stock monitor loaded {} product and {} category thresholds, {} open alerts",
+                    productThresholds.size(), categoryThresholds.size(), openAlerts.size());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> {
+                ProductDto product = event.getProduct();
+                evaluateLater(List.of(new ProductStock(product.getId(), product.getQuantity(), product.getCategory(),
+                        product.getVersion())));
+            }
+            case STOCK_CHANGED -> evaluateLater(List.of(new ProductStock(event.getProductId(), event.getQuantity(),
+                    event.getCategory(), event.getVersion())));
+            case DELETED -> {
+                Long productId = event.getProductId();
+                evaluator.execute(() -> deleted(List.of(productId)));
+            }
+            default -> {
+                // Bulk paths publish the per-product levels as a StockLevelsChangedEvent
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockLevelsChanged(StockLevelsChangedEvent event) {
+        if (!event.getLevels().isEmpty()) {
+            evaluateLater(event.getLevels());
+        }
+        if (!event.getDeletedIds().isEmpty()) {
+            evaluator.execute(() -> deleted(event.getDeletedIds()));
+        }
+    }
+
+    public List<LowStockAlertDto> findOpenAlerts(String category) {
+        return openAlerts.values().stream()
+                .filter(alert -> category == null || category.equals(alert.getCategory()))
+                .sorted(Comparator.comparing(LowStockAlertDto::getId))
+                .toList();
+    }
+
+    public List<LowStockAlertDto> findAlertHistory(Long productId, int size) {
+        if (size < 1 || size > 1000) {
+            throw new InvalidRequestException("Size must be between 1 and 1000");
+        }
+        return lowStockRepository.findAlertsByProduct(productId, size);
+    }
+
+    public List<LowStockThresholdDto> findThresholds() {
+        Stream<LowStockThresholdDto> products = productThresholds.entrySet().stream()
+                .map(entry -> toDto(entry.getKey(), null, entry.getValue()));
+        Stream<LowStockThresholdDto> categories = categoryThresholds.entrySet().stream()
+                .map(entry -> toDto(null, entry.getKey(), entry.getValue()));
+        return Stream.concat(products, categories).toList();
+    }
+
+    public LowStockThresholdDto setProductThreshold(Long productId, LowStockThresholdRequest request) {
+        Threshold threshold = toThreshold(request);
+        if (productJdbcRepository.findStock(productId).isEmpty()) {
+            throw new ProductNotFoundException("Product not found with ID: " + productId);
+        }
+        log.info("Setting low-stock threshold of product {} to {}/{}", productId, threshold.lowLevel(),
+                threshold.resetLevel());
+        lowStockRepository.saveProductThreshold(productId, threshold.lowLevel(), threshold.resetLevel(),
+                LocalDateTime.now());
+
+        evaluator.execute(() -> {
+            productThresholds.put(productId, threshold);
+            reevaluate(List.of(productId));
+        });
+        return toDto(productId, null, threshold);
+    }
+
+    public LowStockThresholdDto setCategoryThreshold(String category, LowStockThresholdRequest request) {
+        Threshold threshold = toThreshold(request);
+        log.info("Setting low-stock threshold of category '{}' to {}/{}", category, threshold.lowLevel(),
+                threshold.resetLevel());
+        lowStockRepository.saveCategoryThreshold(category, threshold.lowLevel(), threshold.resetLevel(),
+                LocalDateTime.now());
+
+        evaluator.execute(() -> {
+            categoryThresholds.put(category, threshold);
+            // Products already low need an alert now; open alerts may clear under a lower reset level
+            evaluate(productJdbcRepository.findStockAtMost(category, threshold.lowLevel()));
+            reevaluate(openAlertIds(category));
+        });
+        return toDto(null, category, threshold);
+    }
+
+    /**
+     * Removes a product's own threshold; it falls back to its category's or the default. False when it had none.
+     */
+    public boolean deleteProductThreshold(Long productId) {
+        if (!lowStockRepository.deleteProductThreshold(productId)) {
+            return false;
+        }
+        evaluator.execute(() -> {
+            productThresholds.remove(productId);
+            reevaluate(List.of(productId));
+        });
+        return true;
+    }
+
+    public boolean deleteCategoryThreshold(String category) {
+        if (!lowStockRepository.deleteCategoryThreshold(category)) {
+            return false;
+        }
+        evaluator.execute(() -> {
+            categoryThresholds.remove(category);
+            reevaluate(openAlertIds(category));
+        });
+        return true;
+    }
+
+    private void evaluateLater(List<ProductStock> levels) {
+        evaluator.execute(() -> evaluate(levels));
+    }
+
+    private void reevaluate(Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            productJdbcRepository.findStock(productId).ifPresentOrElse(stock -> evaluate(List.of(stock)),
+                    () -> deleted(List.of(productId)));
+        }
+    }
+
+    void evaluate(Collection<ProductStock> levels) {
+        for (ProductStock stock : levels) {
+            try {
+                evaluate(stock);
+            } catch (RuntimeException e) {
+                log.error("Failed to evaluate low stock of product {}: {}", stock.productId(), e.getMessage());
+            }
+        }
+    }
+
+    private void evaluate(ProductStock stock) {
+        Long productId = stock.productId();
+        Long lastVersion = lastVersions.get(productId);
+        if (lastVersion != null && stock.version() != null && stock.version() < lastVersion) {
+            return;
+        }
+        if (stock.version() != null) {
+            lastVersions.put(productId, stock.version());
+        }
+
+        Threshold threshold = thresholdFor(productId, stock.category());
+        LowStockAlertDto open = openAlerts.get(productId);
+        if (open == null) {
+            if (threshold != null && stock.quantity() <= threshold.lowLevel()) {
+                raise(stock, threshold);
+            }
+        } else if (threshold == null || stock.quantity() >= threshold.resetLevel()) {
+            clear(open, stock.quantity());
+        }
+    }
+
+    void deleted(Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            lastVersions.remove(productId);
+            LowStockAlertDto open = openAlerts.get(productId);
+            if (open != null) {
+                clear(open, null);
+            }
+        }
+    }
+
+    private void raise(ProductStock stock, Threshold threshold) {
+        LowStockAlertDto alert = LowStockAlertDto.builder()
+                .productId(stock.productId())
+                .category(stock.category())
+                .quantity(stock.quantity())
+                .lowLevel(threshold.lowLevel())
+                .raisedAt(LocalDateTime.now())
+                .build();
+        alert.setId(lowStockRepository.insertAlert(alert));
+        openAlerts.put(stock.productId(), alert);
+        notifyListeners(alert, true);
+    }
+
+    private void clear(LowStockAlertDto open, Integer quantity) {
+        LowStockAlertDto cleared = open.toBuilder()
+                .clearedAt(LocalDateTime.now())
+                .clearedQuantity(quantity)
+                .build();
+        lowStockRepository.clearAlert(cleared.getId(), cleared.getClearedAt(), quantity);
+        openAlerts.remove(open.getProductId());
+        notifyListeners(cleared, false);
+    }
+
+    private void notifyListeners(LowStockAlertDto alert, boolean raised) {
+        for (LowStockAlertListener listener : listeners) {
+            try {
+                if (raised) {
+                    listener.alertRaised(alert);
+                } else {
+                    listener.alertCleared(alert);
+                }
+            } catch (RuntimeException e) {
+                log.error("Low-stock listener {} failed for product {}: {}", listener.getClass().getSimpleName(),
+                        alert.getProductId(), e.getMessage());
+            }
+        }
+    }
+
+    private Threshold thresholdFor(Long productId, String category) {
+        Threshold threshold = productThresholds.get(productId);
+        if (threshold == null && category != null) {
+            threshold = categoryThresholds.get(category);
+        }
+        return threshold != null ? threshold : defaultThreshold;
+    }
+
+    private List<Long> openAlertIds(String category) {
+        return openAlerts.values().stream()
+                .filter(alert -> category.equals(alert.getCategory()))
+                .map(LowStockAlertDto::getProductId)
+                .toList();
+    }
+
+    private Threshold toThreshold(LowStockThresholdRequest request) {
+        int lowLevel = request.getLowLevel();
+        int resetLevel = request.getResetLevel() != null ? request.getResetLevel() : lowLevel + hysteresis;
+        if (resetLevel <= lowLevel) {
+            throw new InvalidRequestException("Reset level must be greater than the low level");
+        }
+        return new Threshold(lowLevel, resetLevel);
+    }
+
+    private static LowStockThresholdDto toDto(Long productId, String category, Threshold threshold) {
+        return LowStockThresholdDto.builder()
+                .productId(productId)
+                .category(category)
+                .lowLevel(threshold.lowLevel())
+                .resetLevel(threshold.resetLevel())
+                .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (evaluator instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.cache.ProductCache;
+import com.ing.store_management.cache.ProductResponseCache;
+import com.ing.store_management.dto.BulkDeleteRequest;
+import com.ing.store_management.dto.BulkOperationReport;
+import com.ing.store_management.dto.BulkPriceChangeRequest;
+import com.ing.store_management.dto.ProductChangeEvent;
+import com.ing.store_management.dto.StockLevelsChangedEvent;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import com.ing.store_management.repository.ProductPrice;
+import com.ing.store_management.search.ProductSearchIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk deletes and repricing as chunked set-based statements. Each chunk is one DELETE or UPDATE over an id
+ * list, committed on its own, so no entities are loaded and a failure part-way leaves earlier chunks applied.
+ */
+@Service
+@Slf4j
+public class ProductBulkService {
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductCache productCache;
+    private final ProductResponseCache productResponseCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public ProductBulkService(ProductJdbcRepository productJdbcRepository,
+                              ProductCache productCache,
+                              ProductResponseCache productResponseCache,
+                              ProductSearchIndex productSearchIndex,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${app.bulk.chunk-size:1000}") int chunkSize) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.productCache = productCache;
+        this.productResponseCache = productResponseCache;
+        this.productSearchIndex = productSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkOperationReport deleteProducts(BulkDeleteRequest request) {
+        boolean byFilter = request.getCategory() != null || request.getMaxQuantity() != null;
+        if ((request.getIds() != null) == byFilter || request.getIds() != null && request.getIds().isEmpty()) {
+            throw new InvalidRequestException("Bulk delete needs either a non-empty list of ids or a filter, not both");
+        }
+        BulkOperationReport report = byFilter
+                ? deleteByFilter(request.getCategory(), request.getMaxQuantity())
+                : deleteByIds(request.getIds());
+        publishBulkChange(byFilter ? request.getCategory() : null, report);
+        return report;
+    }
+
+    private BulkOperationReport deleteByIds(List<Long> requestedIds) {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(requestedIds));
+        log.info("Bulk deleting {} products by ID in chunks of {}", ids.size(), chunkSize);
+        Progress progress = new Progress("Bulk delete", ids.size());
+
+        List<Long> missingIds = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            List<Long> deleted = productJdbcRepository.deleteByIds(chunk, LocalDateTime.now());
+            removeFromIndexAndCaches(deleted);
+
+            Set<Long> deletedIds = new HashSet<>(deleted);
+            chunk.stream().filter(id -> !deletedIds.contains(id)).forEach(missingIds::add);
+            progress.chunkDone(chunk.size(), deleted.size());
+        }
+
+        return progress.report(missingIds);
+    }
+
+    private BulkOperationReport deleteByFilter(String category, Integer maxQuantity) {
+        long matching = productJdbcRepository.countMatching(category, maxQuantity);
+        log.info("Bulk deleting {} products with category: {}, max quantity: {} in chunks of {}",
+                matching, category, maxQuantity, chunkSize);
+        Progress progress = new Progress("Bulk delete", matching);
+
+        long afterId = 0;
+        List<Long> chunk;
+        while (!(chunk = productJdbcRepository.findIdsAfter(category, maxQuantity, afterId, chunkSize)).isEmpty()) {
+            // The filter is repeated in the DELETE: a row may have stopped matching since its id was selected
+            List<Long> deleted = productJdbcRepository.deleteMatching(chunk, category, maxQuantity,
+                    LocalDateTime.now());
+            removeFromIndexAndCaches(deleted);
+
+            afterId = chunk.get(chunk.size() - 1);
+            progress.chunkDone(chunk.size(), deleted.size());
+        }
+
+        return progress.report(null);
+    }
+
+    /**
+     * Reprices every product in a category. Products whose new price would not be positive are skipped and
+     * counted in the report rather than failing the whole operation.
+     */
+    public BulkOperationReport changePrices(BulkPriceChangeRequest request) {
+        if ((request.getPercentage() == null) == (request.getAmount() == null)) {
+            throw new InvalidRequestException("Bulk price change needs either a percentage or an amount, not both");
+        }
+
+        String category = request.getCategory();
+        long matching = productJdbcRepository.countMatching(category, null);
+        log.info("Bulk changing prices of {} products in category: {} by {} in chunks of {}", matching, category,
+                request.getPercentage() != null ? request.getPercentage() + "%" : request.getAmount(), chunkSize);
+        Progress progress = new Progress("Bulk price change", matching);
+
+        BigDecimal factor = request.getPercentage() == null ? null
+                : BigDecimal.ONE.add(request.getPercentage().movePointLeft(2));
+        long afterId = 0;
+        List<Long> chunk;
+        while (!(chunk = productJdbcRepository.findIdsAfter(category, null, afterId, chunkSize)).isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, ProductPrice> updated = factor != null
+                    ? productJdbcRepository.multiplyPrices(chunk, category, factor, now)
+                    : productJdbcRepository.addToPrices(chunk, category, request.getAmount(), now);
+            productCache.invalidateAll(updated.keySet());
+            productResponseCache.invalidateAll(updated.keySet());
+            // Only the price facet is stale; the indexed text is unchanged
+            productSearchIndex.updatePrices(updated.values());
+
+            afterId = chunk.get(chunk.size() - 1);
+            progress.chunkDone(chunk.size(), updated.size());
+        }
+
+        BulkOperationReport report = progress.report(null);
+        publishBulkChange(category, report);
+        return report;
+    }
+
+    // One event per operation rather than per product, so a large bulk change cannot flood stream subscribers
+    private void publishBulkChange(String category, BulkOperationReport report) {
+        if (report.getAffected() > 0) {
+            eventPublisher.publishEvent(ProductChangeEvent.bulkChanged(category, report.getAffected()));
+        }
+    }
+
+    private void removeFromIndexAndCaches(List<Long> deleted) {
+        if (deleted.isEmpty()) {
+            return;
+        }
+        productCache.invalidateAll(deleted);
+        productResponseCache.invalidateAll(deleted);
+        productSearchIndex.delete(deleted);
+        eventPublisher.publishEvent(StockLevelsChangedEvent.deleted(deleted));
+    }
+
+    private static class Progress {
+        private final String operation;
+        private final long expected;
+        private final long start = System.nanoTime();
+        private long matched;
+        private long affected;
+        private int chunks;
+
+        Progress(String operation, long expected) {
+            this.operation = operation;
+            this.expected = expected;
+        }
+
+        void chunkDone(int chunkMatched, int chunkAffected) {
+            matched += chunkMatched;
+            affected += chunkAffected;
+            chunks++;
+            log.info("{} progress: chunk {}, {} of ~{} products processed ({}%), {} affected", operation, chunks,
+                    matched, expected, expected == 0 ? 100 : Math.min(100, matched * 100 / expected), affected);
+        }
+
+        BulkOperationReport report(List<Long> missingIds) {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("{} finished: {} matched, {} affected, {} skipped in {} chunks, {} ms",
+                    operation, matched, affected, matched - affected, chunks, durationMs);
+            return BulkOperationReport.builder()
+                    .matched(matched)
+                    .affected(affected)
+                    .skipped(matched - affected)
+                    .chunks(chunks)
+                    .durationMs(durationMs)
+                    .missingIds(missingIds)
+                    .build();
+        }
+    }
+}
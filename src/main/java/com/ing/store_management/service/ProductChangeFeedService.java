@@ -0,0 +1,113 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.dto.CursorPage;
+import com.ing.store_management.dto.ProductChange;
+import com.ing.store_management.exception.ChangeTokenExpiredException;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import com.ing.store_management.util.ProductChangeToken;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incremental sync: products changed and deleted after a client's high-watermark, in (changed at, id) order.
+ * Changes younger than the settle window are held back so a transaction that stamped its rows earlier but
+ * commits later cannot fall behind a watermark that was already handed out.
+ */
+@Service
+@Slf4j
+public class ProductChangeFeedService {
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final Duration settleWindow;
+    private final Duration tombstoneRetention;
+    private final int maxPageSize;
+    private final ScheduledExecutorService purger;
+
+    public ProductChangeFeedService(ProductJdbcRepository productJdbcRepository,
+                                    @Value("${app.changes.settle-window:5s}") Duration settleWindow,
+                                    @Value("${app.changes.tombstone-retention:30d}") Duration tombstoneRetention,
+                                    @Value("${app.changes.purge-interval:1h}") Duration purgeInterval,
+                                    @Value("${app.changes.max-page-size:1000}") int maxPageSize) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.settleWindow = settleWindow;
+        this.tombstoneRetention = tombstoneRetention;
+        this.maxPageSize = maxPageSize;
+
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-tombstone-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeTombstones, purgeInterval.toMillis(), purgeInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * One page of changes after {@code since} (from the beginning when null). The returned cursor is the
+     * watermark for the next call and is present even on the last page.
+     */
+    public CursorPage<ProductChange> findChangesSince(String since, int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+
+        ProductChangeToken from = since != null ? ProductChangeToken.decode(since) : ProductChangeToken.START;
+        LocalDateTime now = LocalDateTime.now();
+        if (since != null && from.changedAt().isBefore(now.minus(tombstoneRetention))) {
+            // Deletes older than the retention period may already be purged, so this client cannot catch up
+            throw new ChangeTokenExpiredException("Change token is older than " + tombstoneRetention.toDays()
+                    + " days; download the full catalog and sync from the token it returns");
+        }
+        log.info("Finding product changes since {} {} - size: {}", from.changedAt(), from.id(), size);
+
+        LocalDateTime upTo = now.minus(settleWindow).truncatedTo(ChronoUnit.MICROS);
+        List<ProductChange> rows = productJdbcRepository.findChangesAfter(from.changedAt(), from.id(), upTo, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<ProductChange> changes = hasNext ? rows.subList(0, size) : rows;
+
+        ProductChangeToken next;
+        if (hasNext) {
+            ProductChange last = changes.get(changes.size() - 1);
+            next = new ProductChangeToken(last.getChangedAt(), last.getProductId());
+        } else if (upTo.isAfter(from.changedAt())) {
+            // Everything up to the settle horizon has been returned; idle clients keep their token fresh
+            next = new ProductChangeToken(upTo, Long.MAX_VALUE);
+        } else {
+            next = from;
+        }
+
+        return CursorPage.<ProductChange>builder()
+                .content(List.copyOf(changes))
+                .size(changes.size())
+                .hasNext(hasNext)
+                .nextCursor(next.encode())
+                .build();
+    }
+
+    void purgeTombstones() {
+        try {
+            int purged = productJdbcRepository.purgeTombstonesBefore(LocalDateTime.now().minus(tombstoneRetention));
+            if (purged > 0) {
+                log.info("Purged {} product tombstones older than {}", purged, tombstoneRetention);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to purge product tombstones: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        purger.shutdownNow();
+    }
+}
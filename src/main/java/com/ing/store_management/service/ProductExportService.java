@@ -0,0 +1,268 @@
+package com.ing.store_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the product catalog from a forward-only JDBC cursor. A reader thread fetches rows into a
+ * bounded hand-off queue while the calling thread serializes them, so heap use is capped by the queue
+ * size regardless of catalog size. Each reader holds a database connection for the whole export, so at most
+ * {@code app.export.max-concurrent} run at once and further exports wait for a reader.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private static final ProductDto END_OF_STREAM = new ProductDto();
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,name,description,price,quantity,category,createdAt,updatedAt";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidRequestException("Unsupported export format: " + value);
+        }
+    }
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final int bufferRows;
+    private final ExecutorService readerExecutor;
+
+    public ProductExportService(ProductJdbcRepository productJdbcRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${app.export.fetch-size:1000}") int fetchSize,
+                                @Value("${app.export.buffer-rows:2000}") int bufferRows,
+                                @Value("${app.export.max-concurrent:4}") int maxConcurrent) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.bufferRows = bufferRows;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.readerExecutor = Executors.newFixedThreadPool(maxConcurrent, runnable -> {
+            Thread thread = new Thread(runnable, "product-export-reader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        readerExecutor.shutdownNow();
+    }
+
+    public long export(Format format, boolean gzip, OutputStream target) throws IOException {
+        log.info("Exporting product catalog as {} (gzip: {}, fetch size: {})", format, gzip, fetchSize);
+        long start = System.nanoTime();
+
+        BlockingQueue<ProductDto> queue = new ArrayBlockingQueue<>(bufferRows);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicReference<Throwable> readFailure = new AtomicReference<>();
+
+        readerExecutor.execute(() -> {
+            if (cancelled.get()) {
+                // the writer gave up while this export waited for a reader
+                return;
+            }
+            try {
+                productJdbcRepository.streamAll(fetchSize, row -> handOff(queue, row, cancelled));
+            } catch (ExportCancelledException e) {
+                return;
+            } catch (Throwable e) {
+                readFailure.set(e);
+            }
+            try {
+                handOff(queue, END_OF_STREAM, cancelled);
+            } catch (ExportCancelledException ignored) {
+                // the writer already gave up, nobody is waiting for the end marker
+            }
+        });
+
+        long rows = 0;
+        AbortableGzipOutputStream gzipOut = gzip ? new AbortableGzipOutputStream(target, OUTPUT_BUFFER_SIZE) : null;
+        OutputStream out = gzipOut != null ? gzipOut : new BufferedOutputStream(target, OUTPUT_BUFFER_SIZE);
+        boolean completed = false;
+        try {
+            RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+            ProductDto row;
+            while ((row = queue.take()) != END_OF_STREAM) {
+                writer.write(row);
+                rows++;
+            }
+            // Fail before closing: closing writes the gzip trailer and flushes, which would turn a partial
+            // export into a complete-looking file. Left unterminated, the client sees a broken download;
+            // the deflater is released below without finishing.
+            if (readFailure.get() != null) {
+                throw new IllegalStateException("Product export failed after " + rows + " rows", readFailure.get());
+            }
+            writer.close();
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Product export interrupted");
+        } finally {
+            cancelled.set(true);
+            queue.clear();
+            if (!completed && gzipOut != null) {
+                gzipOut.abort();
+            }
+        }
+
+        log.info("Exported {} products in {} ms", rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return rows;
+    }
+
+    private void handOff(BlockingQueue<ProductDto> queue, ProductDto row, AtomicBoolean cancelled) {
+        try {
+            while (!queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                if (cancelled.get()) {
+                    throw new ExportCancelledException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExportCancelledException();
+        }
+    }
+
+    /**
+     * Gzip stream that can give back its native deflater without finishing, for exports that fail part way.
+     */
+    private static final class AbortableGzipOutputStream extends GZIPOutputStream {
+
+        AbortableGzipOutputStream(OutputStream out, int size) throws IOException {
+            super(out, size);
+        }
+
+        void abort() {
+            def.end();
+        }
+    }
+
+    private interface RowWriter extends AutoCloseable {
+        void write(ProductDto product) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final SequenceWriter sequenceWriter;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.sequenceWriter = objectMapper.writerFor(ProductDto.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+        }
+
+        @Override
+        public void write(ProductDto product) throws IOException {
+            sequenceWriter.write(product);
+        }
+
+        @Override
+        public void close() throws IOException {
+            sequenceWriter.close();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ProductDto product) throws IOException {
+            writer.write(String.valueOf(product.getId()));
+            writer.write(',');
+            writer.write(escape(product.getName()));
+            writer.write(',');
+            writer.write(escape(product.getDescription()));
+            writer.write(',');
+            writer.write(product.getPrice().toPlainString());
+            writer.write(',');
+            writer.write(String.valueOf(product.getQuantity()));
+            writer.write(',');
+            writer.write(escape(product.getCategory()));
+            writer.write(',');
+            writer.write(product.getCreatedAt() != null ? product.getCreatedAt().toString() : "");
+            writer.write(',');
+            writer.write(product.getUpdatedAt() != null ? product.getUpdatedAt().toString() : "");
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static class ExportCancelledException extends RuntimeException {
+        ExportCancelledException() {
+            super("Product export cancelled", null, false, false);
+        }
+    }
+}
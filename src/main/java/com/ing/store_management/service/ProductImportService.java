@@ -0,0 +1,298 @@
+package com.ing.store_management.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.store_management.dto.ProductChangeEvent;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.dto.ProductImportReport;
+import com.ing.store_management.dto.StockLevelsChangedEvent;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import com.ing.store_management.repository.ProductStock;
+import com.ing.store_management.search.ProductSearchIndex;
+import com.ing.store_management.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a streamed CSV or JSON array of products in fixed-size chunks. Each chunk is validated,
+ * checked for duplicate names with one set-based query, and inserted as a single JDBC batch in its
+ * own transaction, so memory use depends on the chunk size rather than the feed size.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("name", "description", "price", "quantity", "category");
+
+    public enum Format {
+        CSV, JSON;
+
+        public static Format fromContentType(String contentType) {
+            if (contentType != null) {
+                String normalized = contentType.toLowerCase(Locale.ROOT);
+                if (normalized.startsWith("text/csv")) {
+                    return CSV;
+                }
+                if (normalized.startsWith("application/json")) {
+                    return JSON;
+                }
+            }
+            throw new InvalidRequestException("Unsupported import content type: " + contentType);
+        }
+    }
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(ProductJdbcRepository productJdbcRepository,
+                                ProductSearchIndex productSearchIndex,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.import.chunk-size:1000}") int chunkSize,
+                                @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ProductImportReport importProducts(Format format, InputStream input) throws IOException {
+        log.info("Importing products from {} stream with chunk size {}", format, chunkSize);
+        long start = System.nanoTime();
+
+        ImportRun run = new ImportRun();
+        try {
+            if (format == Format.CSV) {
+                readCsv(input, run);
+            } else {
+                readJson(input, run);
+            }
+            run.flush();
+        } finally {
+            // Chunks commit independently, so a feed that fails part-way still announces what it imported
+            if (run.imported > 0) {
+                eventPublisher.publishEvent(ProductChangeEvent.bulkChanged(null, run.imported));
+            }
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        double rowsPerSecond = run.totalRows * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+
+        log.info("Product import finished: {} rows, {} imported, {} failed, {} rows/sec",
+                run.totalRows, run.imported, run.failed, String.format("%.0f", rowsPerSecond));
+
+        return ProductImportReport.builder()
+                .totalRows(run.totalRows)
+                .imported(run.imported)
+                .failed(run.failed)
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(Math.round(rowsPerSecond * 10) / 10.0)
+                .errors(run.errors)
+                .errorsTruncated(run.failed > run.errors.size())
+                .build();
+    }
+
+    private void readCsv(InputStream input, ImportRun run) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.keySet().containsAll(List.of("name", "price", "quantity", "category"))) {
+            throw new InvalidRequestException("CSV header must contain the columns " + CSV_COLUMNS);
+        }
+
+        List<String> record;
+        while ((record = readRecord(reader, run)) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            long row = ++run.totalRows;
+            String name = field(record, columns, "name");
+            try {
+                ProductDto product = ProductDto.builder()
+                        .name(name)
+                        .description(field(record, columns, "description"))
+                        .price(parseOrNull(field(record, columns, "price"), BigDecimal::new))
+                        .quantity(parseOrNull(field(record, columns, "quantity"), Integer::valueOf))
+                        .category(field(record, columns, "category"))
+                        .build();
+                run.add(row, product);
+            } catch (NumberFormatException e) {
+                run.reject(row, name, "Invalid number format");
+            }
+        }
+    }
+
+    private static List<String> readRecord(CsvReader reader, ImportRun run) throws IOException {
+        try {
+            return reader.readRecord();
+        } catch (CsvReader.MalformedCsvException e) {
+            throw new InvalidRequestException("Malformed CSV at row " + (run.totalRows + 1) + " ("
+                    + run.imported + " rows already imported): " + e.getMessage());
+        }
+    }
+
+    private void readJson(InputStream input, ImportRun run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidRequestException("JSON import body must be an array of products");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new InvalidRequestException("Malformed JSON after row " + run.totalRows + " ("
+                            + run.imported + " rows already imported): unterminated array");
+                }
+                long row = ++run.totalRows;
+                if (token != JsonToken.START_OBJECT) {
+                    run.reject(row, null, "Expected a JSON object");
+                    parser.skipChildren();
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(parser);
+                try {
+                    run.add(row, objectMapper.treeToValue(node, ProductDto.class));
+                } catch (JsonProcessingException e) {
+                    run.reject(row, node.path("name").asText(null), "Invalid product: " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonParseException e) {
+            throw new InvalidRequestException("Malformed JSON after row " + run.totalRows + " ("
+                    + run.imported + " rows already imported): " + e.getOriginalMessage());
+        }
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parseOrNull(String value, Function<String, T> parser) {
+        return value == null ? null : parser.apply(value);
+    }
+
+    private class ImportRun {
+        private final List<ProductDto> chunk = new ArrayList<>(chunkSize);
+        private final List<Long> chunkRows = new ArrayList<>(chunkSize);
+        private final List<ProductImportReport.RowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long failed;
+
+        void add(long row, ProductDto product) {
+            Set<ConstraintViolation<ProductDto>> violations = validator.validate(product);
+            if (!violations.isEmpty()) {
+                reject(row, product.getName(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            chunk.add(product);
+            chunkRows.add(row);
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String name, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportReport.RowError(row, name, message));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            Set<String> existing = productJdbcRepository.findExistingLowerCaseNames(chunk.stream()
+                    .map(product -> product.getName().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet()));
+
+            List<ProductDto> accepted = new ArrayList<>(chunk.size());
+            Set<String> seenInChunk = new HashSet<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                ProductDto product = chunk.get(i);
+                String key = product.getName().toLowerCase(Locale.ROOT);
+                if (existing.contains(key) || !seenInChunk.add(key)) {
+                    reject(chunkRows.get(i), product.getName(),
+                            "Product with name '" + product.getName() + "' already exists");
+                } else {
+                    accepted.add(product);
+                }
+            }
+
+            if (!accepted.isEmpty()) {
+                List<Long> ids = transactionTemplate.execute(status ->
+                        productJdbcRepository.batchInsert(accepted, LocalDateTime.now()));
+                for (int i = 0; i < accepted.size(); i++) {
+                    accepted.get(i).setId(ids.get(i));
+                }
+                productSearchIndex.index(accepted);
+                eventPublisher.publishEvent(StockLevelsChangedEvent.changed(accepted.stream()
+                        .map(product -> new ProductStock(product.getId(), product.getQuantity(), product.getCategory(), 0L))
+                        .toList()));
+                imported += accepted.size();
+            }
+            log.debug("Imported chunk of {} products ({} rejected as duplicates)",
+                    accepted.size(), chunk.size() - accepted.size());
+
+            chunk.clear();
+            chunkRows.clear();
+        }
+    }
+}
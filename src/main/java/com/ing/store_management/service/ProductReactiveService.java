@@ -0,0 +1,57 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.cache.ProductCache;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.exception.ProductNotFoundException;
+import com.ing.store_management.repository.ProductReactiveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the product reads in {@link ProductService}. Paging limits come from
+ * {@link ProductService#pageRequest} and rows map through the same code as the JDBC reads, so both APIs accept
+ * the same requests and return the same DTOs.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductReactiveService {
+
+    private final ProductReactiveRepository productReactiveRepository;
+    private final ProductService productService;
+    private final ProductCache productCache;
+
+    public Mono<ProductDto> findProductById(Long id) {
+        log.info("Reactively finding product by ID: {}", id);
+
+        // Serve hits from the shared cache; misses are read without populating it, the blocking path owns loading
+        ProductDto cached = productCache.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return productReactiveRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.error("Product not found with ID: {}", id);
+                    return new ProductNotFoundException("Product not found with ID: " + id);
+                }));
+    }
+
+    public Flux<ProductDto> streamProducts(long afterId) {
+        log.info("Reactively streaming products after ID: {}", afterId);
+        return productReactiveRepository.findAllAfter(afterId);
+    }
+
+    public Flux<ProductDto> findProductsByName(String name, int page, int size) {
+        log.info("Reactively searching products by name containing: {} - page: {}, size: {}", name, page, size);
+        // Validated before subscription, so a bad page size fails the request like the blocking endpoint does
+        return productReactiveRepository.findByNameContaining(name, productService.pageRequest(page, size));
+    }
+
+    public Flux<ProductDto> findProductsByCategory(String category, int page, int size) {
+        log.info("Reactively finding products by category: {} - page: {}, size: {}", category, page, size);
+        return productReactiveRepository.findByCategory(category, productService.pageRequest(page, size));
+    }
+}
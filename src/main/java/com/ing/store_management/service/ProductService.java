@@ -1,25 +1,109 @@
 package com.ing.store_management.service;
 
+import com.ing.store_management.cache.ProductCache;
+import com.ing.store_management.cache.ProductResponseCache;
+import com.ing.store_management.dto.CursorPage;
+import com.ing.store_management.dto.ProductChangeEvent;
+import com.ing.store_management.dto.ProductBatchResponse;
 import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.dto.ProductPatchRequest;
+import com.ing.store_management.dto.ProductQueryResponse;
+import com.ing.store_management.dto.StockLevelResponse;
+import com.ing.store_management.exception.ConcurrentUpdateException;
 import com.ing.store_management.exception.DuplicateProductException;
+import com.ing.store_management.exception.InsufficientStockException;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.exception.PreconditionFailedException;
 import com.ing.store_management.exception.ProductNotFoundException;
 import com.ing.store_management.model.Product;
+import com.ing.store_management.repository.PatchedProduct;
+import com.ing.store_management.repository.ProductJdbcRepository;
 import com.ing.store_management.repository.ProductRepository;
+import com.ing.store_management.repository.ProductStock;
+import com.ing.store_management.repository.ProductVersion;
+import com.ing.store_management.search.ProductSearchIndex;
+import com.ing.store_management.util.ProductCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ProductService {
 
+    static final int MAX_BATCH_IDS = 1000;
+    // Keeps each IN list well inside driver and plan-cache limits
+    static final int BATCH_QUERY_CHUNK_SIZE = 500;
+    // A product is written to the index shortly after its row; changes this close to the index commit may be missing
+    private static final Duration INDEX_WRITE_LAG = Duration.ofMinutes(1);
+    // Largest value the NUMERIC(10, 2) price column holds
+    static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private record AppliedUpdate(Product product, String previousCategory) {
+    }
+
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductResponseCache productResponseCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductJdbcRepository productJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize = 100;
+
+    private List<BigDecimal> priceRangeBounds = List.of(new BigDecimal("25"), new BigDecimal("50"),
+            new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500"));
+
+    /**
+     * Facet bucket edges; a misconfigured list fails startup rather than every faceted query.
+     */
+    @Value("${app.search.price-ranges:25,50,100,250,500}")
+    void setPriceRangeBounds(List<BigDecimal> bounds) {
+        for (int i = 0; i < bounds.size(); i++) {
+            BigDecimal bound = bounds.get(i);
+            if (bound.signum() <= 0 || bound.compareTo(MAX_PRICE) > 0) {
+                throw new IllegalArgumentException("Price range bound " + bound + " must be within 0.." + MAX_PRICE);
+            }
+            if (i > 0 && bound.compareTo(bounds.get(i - 1)) <= 0) {
+                throw new IllegalArgumentException("Price range bounds must be strictly increasing: " + bounds);
+            }
+        }
+        this.priceRangeBounds = List.copyOf(bounds);
+    }
 
     public ProductDto createProduct(ProductDto productDto) {
         log.info("Creating new product: {}", productDto.getName());
@@ -31,71 +115,329 @@ public class ProductService {
 
         Product product = mapToEntity(productDto);
         Product savedProduct = productRepository.save(product);
+        evict(savedProduct.getId());
+
+        ProductDto createdProduct = mapToDTO(savedProduct);
+        productSearchIndex.index(createdProduct);
+        eventPublisher.publishEvent(ProductChangeEvent.created(createdProduct));
 
         log.info("Product created successfully with ID: {}", savedProduct.getId());
-        return mapToDTO(savedProduct);
+        return createdProduct;
     }
 
     public ProductDto findProductById(Long id) {
         log.info("Finding product by ID: {}", id);
-        Product product = productRepository.findById(id)
+        return productCache.get(id, this::loadProduct);
+    }
+
+    public ProductResponseCache.SerializedProduct findSerializedProductById(Long id) {
+        return productResponseCache.get(id, this::findProductById);
+    }
+
+    /**
+     * Resolves many ids in one call: cached products are served directly and only the misses are read, with
+     * one IN query per {@value #BATCH_QUERY_CHUNK_SIZE} ids. Products come back in request order, duplicates
+     * collapsed; ids that do not exist are listed separately.
+     */
+    public ProductBatchResponse findProductsByIds(List<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        log.info("Finding {} products by ID", uniqueIds.size());
+
+        if (uniqueIds.isEmpty() || uniqueIds.contains(null)) {
+            throw new InvalidRequestException("Product IDs must be a non-empty list of numbers");
+        }
+        if (uniqueIds.size() > MAX_BATCH_IDS) {
+            throw new InvalidRequestException("At most " + MAX_BATCH_IDS + " product IDs can be fetched at once");
+        }
+
+        Map<Long, ProductDto> found = productCache.getAll(uniqueIds, this::loadProducts);
+
+        List<ProductDto> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : uniqueIds) {
+            ProductDto product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        log.info("Found {} products, {} IDs missing", products.size(), missingIds.size());
+
+        return new ProductBatchResponse(products, missingIds);
+    }
+
+    private Map<Long, ProductDto> loadProducts(Set<Long> ids) {
+        log.debug("Product cache missed {} IDs of batch", ids.size());
+        List<Long> misses = List.copyOf(ids);
+        Map<Long, ProductDto> products = new HashMap<>(misses.size() * 2);
+        for (int from = 0; from < misses.size(); from += BATCH_QUERY_CHUNK_SIZE) {
+            List<Long> chunk = misses.subList(from, Math.min(from + BATCH_QUERY_CHUNK_SIZE, misses.size()));
+            productRepository.findProductDtosByIdIn(chunk).forEach(product -> products.put(product.getId(), product));
+        }
+        return products;
+    }
+
+    private ProductDto loadProduct(Long id) {
+        log.debug("Product cache miss for ID: {}", id);
+        return productRepository.findProductDtoById(id)
                 .orElseThrow(() -> {
                     log.error("Product not found with ID: {}", id);
                     return new ProductNotFoundException("Product not found with ID: " + id);
                 });
-
-        return mapToDTO(product);
     }
 
+    @Transactional(readOnly = true)
     public Page<ProductDto> findAllProducts(Pageable pageable) {
         log.info("Finding all products with pagination");
+        checkPageSize(pageable.getPageSize());
 
-        Page<Product> products = productRepository.findAll(pageable);
-        return products.map(this::mapToDTO);
+        return productRepository.findAllProductDtos(pageable);
     }
 
-    public List<ProductDto> findAvailableProducts() {
-        log.info("Finding all available products (quantity > 0)");
+    public CursorPage<ProductDto> findProductsAfterCursor(String cursor, int size, String sortBy, String sortDir,
+                                                          boolean includeTotal) {
+        log.info("Finding products with keyset pagination - size: {}, continuation: {}", size, cursor != null);
 
-        List<Product> products = productRepository.findAvailableProducts();
-        log.info("Found {} available products", products.size());
+        checkPageSize(size);
 
-        return products.stream()
-                .map(this::mapToDTO)
-                .toList();
+        ProductCursor position = cursor != null ? ProductCursor.decode(cursor) : ProductCursor.first(sortBy, sortDir);
+        Window<Product> window = productRepository.findAllBy(position.toScrollPosition(), position.sort(), Limit.of(size));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = position.next((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+
+        return CursorPage.<ProductDto>builder()
+                .content(window.map(this::mapToDTO).getContent())
+                .size(window.size())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .totalElements(includeTotal ? productRepository.count() : null)
+                .build();
     }
 
-    public List<ProductDto> findProductsByName(String name) {
-        log.info("Searching products by name containing: {}", name);
+    /**
+     * One page of in-stock products by id. With {@code includeTotal} the result is a {@link Page} and a count
+     * query runs when the total cannot be inferred from the page itself; otherwise a count-free {@link Slice}.
+     */
+    @Transactional(readOnly = true)
+    public Slice<ProductDto> findAvailableProducts(int page, int size, boolean includeTotal) {
+        log.info("Finding available products (quantity > 0) - page: {}, size: {}", page, size);
 
-        List<Product> products = productRepository.findByNameContainingIgnoreCase(name);
-        log.info("Found {} products matching name: {}", products.size(), name);
+        Slice<ProductDto> products = productRepository.findAvailableProductDtos(pageRequest(page, size));
+        log.info("Found {} available products on page {}", products.getNumberOfElements(), page);
 
-        return products.stream()
-                .map(this::mapToDTO)
-                .toList();
+        return withTotal(products, includeTotal, () -> productRepository.countByQuantityGreaterThan(0));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ProductDto> findProductsByName(String name, int page, int size, boolean includeTotal) {
+        log.info("Searching products by name containing: {} - page: {}, size: {}", name, page, size);
+
+        Slice<ProductDto> products = productRepository.findProductDtosByNameContaining(name, pageRequest(page, size));
+        log.info("Found {} products matching name: {} on page {}", products.getNumberOfElements(), name, page);
+
+        return withTotal(products, includeTotal, () -> productRepository.countByNameContainingIgnoreCase(name));
+    }
+
+    public Page<ProductDto> searchProducts(String query, int page, int size) {
+        log.info("Full-text searching products for: '{}' - page: {}, size: {}", query, page, size);
+
+        Pageable pageable = searchPageRequest(page, size);
+        ProductSearchIndex.SearchHits hits = productSearchIndex.search(query, page, size);
+        // Keeps relevance order from the index
+        List<ProductDto> products = findProductDtosInOrder(hits.ids());
+        log.info("Found {} products matching '{}'", hits.totalHits(), query);
+
+        return new PageImpl<>(products, pageable, hits.totalHits());
+    }
+
+    /**
+     * Filters by name words, categories, price range and stock in one pass over the search index, which also
+     * yields the total and the category and price-range facet counts; only the page of rows is read from the
+     * database. Results are in id order.
+     */
+    public ProductQueryResponse queryProducts(String name, List<String> categories, BigDecimal minPrice,
+                                              BigDecimal maxPrice, boolean availableOnly, int page, int size) {
+        log.info("Querying products - name: {}, categories: {}, price: {}..{}, available only: {}, page: {}, size: {}",
+                name, categories, minPrice, maxPrice, availableOnly, page, size);
+
+        searchPageRequest(page, size);
+        if (minPrice != null && minPrice.signum() < 0 || maxPrice != null && maxPrice.signum() < 0) {
+            throw new InvalidRequestException("Price bounds cannot be negative");
+        }
+        if (Stream.of(minPrice, maxPrice).anyMatch(price -> price != null && price.compareTo(MAX_PRICE) > 0)) {
+            throw new InvalidRequestException("Price bounds cannot exceed " + MAX_PRICE);
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidRequestException("minPrice cannot be greater than maxPrice");
+        }
+        Set<String> selectedCategories = categories == null ? Set.of() : categories.stream()
+                .map(String::trim)
+                .filter(category -> !category.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        ProductSearchIndex.FacetedHits hits = productSearchIndex.facetedSearch(new ProductSearchIndex.FacetQuery(
+                name, selectedCategories, minPrice, maxPrice, availableOnly, priceRangeBounds), page, size);
+        List<ProductDto> products = findProductDtosInOrder(hits.ids());
+        log.info("Found {} products matching query, returning {} on page {}", hits.totalHits(), products.size(), page);
+
+        List<ProductQueryResponse.PriceRangeCount> priceRanges = new ArrayList<>(priceRangeBounds.size() + 1);
+        for (int i = 0; i <= priceRangeBounds.size(); i++) {
+            priceRanges.add(new ProductQueryResponse.PriceRangeCount(
+                    i == 0 ? BigDecimal.ZERO : priceRangeBounds.get(i - 1),
+                    i < priceRangeBounds.size() ? priceRangeBounds.get(i) : null,
+                    hits.priceRangeCounts().get(i)));
+        }
+
+        return ProductQueryResponse.builder()
+                .content(products)
+                .page(page)
+                .size(size)
+                .totalElements(hits.totalHits())
+                .totalPages((int) ((hits.totalHits() + size - 1) / size))
+                .hasNext((long) (page + 1) * size < hits.totalHits())
+                .categories(hits.categoryCounts().entrySet().stream()
+                        .map(count -> new ProductQueryResponse.CategoryCount(count.getKey(), count.getValue()))
+                        .sorted(Comparator.comparingLong(ProductQueryResponse.CategoryCount::getCount).reversed()
+                                .thenComparing(ProductQueryResponse.CategoryCount::getCategory))
+                        .toList())
+                .priceRanges(priceRanges)
+                .build();
     }
 
-    public List<ProductDto> findProductsByCategory(String category) {
-        log.info("Finding products by category: {}", category);
+    private Pageable searchPageRequest(int page, int size) {
+        Pageable pageable = pageRequest(page, size);
+        if ((long) (page + 1) * size > ProductSearchIndex.MAX_RESULT_WINDOW) {
+            throw new InvalidRequestException("Search results are limited to the first "
+                    + ProductSearchIndex.MAX_RESULT_WINDOW + " matches");
+        }
+        return pageable;
+    }
 
-        List<Product> products = productRepository.findByCategory(category);
-        log.info("Found {} products in category: {}", products.size(), category);
+    private List<ProductDto> findProductDtosInOrder(List<Long> ids) {
+        Map<Long, ProductDto> productsById = productRepository.findProductDtosByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
 
-        return products.stream()
-                .map(this::mapToDTO)
+        // Index order is kept; ids deleted since the last refresh are skipped
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
+    public long rebuildSearchIndex() {
+        log.info("Rebuilding product search index");
+        return productSearchIndex.rebuild(consumer -> productJdbcRepository.streamAll(1000, consumer));
+    }
+
+    /**
+     * Rebuilds the search index only if it never completed a rebuild, holds a different number of products than
+     * the table, or products changed or were deleted after its last commit.
+     */
+    public void rebuildSearchIndexIfStale() {
+        Optional<LocalDateTime> committedAt = productSearchIndex.openedCommitAt();
+        long indexed = productSearchIndex.documentCount();
+        long products = productRepository.count();
+        if (committedAt.isEmpty()) {
+            log.info("Product search index is missing or incomplete");
+        } else if (indexed != products) {
+            log.info("Product search index holds {} products, the catalog {}", indexed, products);
+        } else if (!productJdbcRepository.findChangesAfter(committedAt.get().minus(INDEX_WRITE_LAG), 0,
+                LocalDateTime.now(), 1).isEmpty()) {
+            log.info("Products changed since the search index was committed at {}", committedAt.get());
+        } else {
+            log.info("Product search index is up to date");
+            return;
+        }
+        rebuildSearchIndex();
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ProductDto> findProductsByCategory(String category, int page, int size, boolean includeTotal) {
+        log.info("Finding products by category: {} - page: {}, size: {}", category, page, size);
+
+        Slice<ProductDto> products = productRepository.findProductDtosByCategory(category, pageRequest(page, size));
+        log.info("Found {} products in category: {} on page {}", products.getNumberOfElements(), category, page);
+
+        return withTotal(products, includeTotal, () -> productRepository.countByCategory(category));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ProductVersion> findProductVersionsByCategory(String category, int page, int size, boolean includeTotal) {
+        Slice<ProductVersion> versions = productRepository.findVersionsByCategory(category, pageRequest(page, size));
+        return withTotal(versions, includeTotal, () -> productRepository.countByCategory(category));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ProductVersion> findAvailableProductVersions(int page, int size, boolean includeTotal) {
+        Slice<ProductVersion> versions = productRepository.findAvailableVersions(pageRequest(page, size));
+        return withTotal(versions, includeTotal, () -> productRepository.countByQuantityGreaterThan(0));
+    }
+
+    /**
+     * Validates {@code page} and {@code size} against the server-side limits; shared with the reactive read API.
+     */
+    public Pageable pageRequest(int page, int size) {
+        if (page < 0) {
+            throw new InvalidRequestException("Page must be >= 0");
+        }
+        checkPageSize(size);
+        return PageRequest.of(page, size);
+    }
+
+    private void checkPageSize(int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+    }
+
+    private static <T> Slice<T> withTotal(Slice<T> slice, boolean includeTotal, LongSupplier count) {
+        // Skips the count on a first or last page, where the total follows from the page itself
+        return includeTotal ? PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(), count) : slice;
+    }
+
     public ProductDto updateProduct(Long productId, ProductDto productDto) {
+        return updateProduct(productId, productDto, null);
+    }
+
+    /**
+     * Updates the product if it is still at {@code expectedVersion} (any version when null). The version is
+     * checked by Hibernate in the UPDATE's WHERE clause, so an edit that slipped in after our read also fails.
+     */
+    public ProductDto updateProduct(Long productId, ProductDto productDto, Long expectedVersion) {
         log.info("Updating product with ID: {}", productId);
 
+        AppliedUpdate update;
+        try {
+            update = transactionTemplate.execute(status -> applyUpdate(productId, productDto, expectedVersion));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Product {} was modified concurrently", productId);
+            throw versionConflict(productId, expectedVersion);
+        }
+
+        evict(productId);
+        // Mapped after commit so the response carries the version the flush assigned
+        ProductDto updatedProductDto = mapToDTO(update.product());
+        productSearchIndex.index(updatedProductDto);
+        eventPublisher.publishEvent(ProductChangeEvent.updated(updatedProductDto, update.previousCategory()));
+        return updatedProductDto;
+    }
+
+    private AppliedUpdate applyUpdate(Long productId, ProductDto productDto, Long expectedVersion) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> {
                     log.error("Product not found with ID: {}", productId);
                     return new ProductNotFoundException("Product not found with ID: " + productId);
                 });
 
+        if (expectedVersion != null && !expectedVersion.equals(product.getVersion())) {
+            log.warn("Product {} is at version {}, client expected {}", productId, product.getVersion(), expectedVersion);
+            throw versionConflict(productId, expectedVersion);
+        }
+
         String oldName = product.getName();
         String oldDescription = product.getDescription();
         BigDecimal oldPrice = product.getPrice();
@@ -132,21 +474,128 @@ public class ProductService {
                 oldQuantity, product.getQuantity(),
                 oldCategory, product.getCategory());
 
-        return mapToDTO(updatedProduct);
+        return new AppliedUpdate(updatedProduct, oldCategory);
+    }
+
+    /**
+     * Applies only the supplied fields with a single UPDATE that also returns the new row, so there is no
+     * load before the write and no re-read after it.
+     */
+    public ProductDto patchProduct(Long productId, ProductPatchRequest patch, Long expectedVersion) {
+        log.info("Patching product with ID: {}", productId);
+
+        if (Stream.of(patch.getName(), patch.getDescription(), patch.getPrice(), patch.getQuantity(), patch.getCategory())
+                .allMatch(Objects::isNull)) {
+            throw new InvalidRequestException("Patch must contain at least one field to update");
+        }
+
+        PatchedProduct patched = productJdbcRepository.patch(productId, patch, expectedVersion, LocalDateTime.now())
+                .orElseThrow(() -> {
+                    if (!productRepository.existsById(productId)) {
+                        log.error("Product not found with ID: {}", productId);
+                        return new ProductNotFoundException("Product not found with ID: " + productId);
+                    }
+                    log.warn("Product {} is no longer at version {}", productId, expectedVersion);
+                    return versionConflict(productId, expectedVersion);
+                });
+
+        ProductDto patchedProduct = patched.product();
+        evict(productId);
+        productSearchIndex.index(patchedProduct);
+        eventPublisher.publishEvent(ProductChangeEvent.updated(patchedProduct, patched.previousCategory()));
+
+        log.info("Product '{}' patched successfully, now at version {}", patchedProduct.getName(), patchedProduct.getVersion());
+        return patchedProduct;
+    }
+
+    public StockLevelResponse decrementStock(Long productId, int amount) {
+        log.info("Decrementing stock of product {} by {}", productId, amount);
+
+        // Conditional UPDATE instead of read-modify-write: concurrent sales serialize on the row and cannot oversell
+        ProductStock stock = productJdbcRepository.decrementQuantity(productId, amount, LocalDateTime.now())
+                .orElseThrow(() -> {
+                    Integer available = productRepository.findQuantityById(productId)
+                            .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+                    log.warn("Insufficient stock for product {}: requested {}, available {}", productId, amount, available);
+                    return new InsufficientStockException("Insufficient stock for product " + productId
+                            + ": requested " + amount + ", available " + available);
+                });
+        return stockChanged(productId, stock);
+    }
+
+    public StockLevelResponse incrementStock(Long productId, int amount) {
+        log.info("Incrementing stock of product {} by {}", productId, amount);
+
+        ProductStock stock = productJdbcRepository.incrementQuantity(productId, amount, LocalDateTime.now())
+                .orElseThrow(() -> {
+                    if (!productRepository.existsById(productId)) {
+                        return new ProductNotFoundException("Product not found with ID: " + productId);
+                    }
+                    return new InvalidRequestException("Stock of product " + productId + " cannot exceed " + Integer.MAX_VALUE);
+                });
+        return stockChanged(productId, stock);
     }
 
     public void deleteProduct(Long productId) {
+        deleteProduct(productId, null);
+    }
+
+    public void deleteProduct(Long productId, Long expectedVersion) {
         log.info("Deleting product with ID: {}", productId);
 
-        if (!productRepository.existsById(productId)) {
-            log.error("Product not found with ID: {}", productId);
-            throw new ProductNotFoundException("Product not found with ID: " + productId);
+        if (expectedVersion != null) {
+            // DELETE ... WHERE id = ? AND version = ?; only a miss costs a second query to pick 404 vs 412
+            if (!productJdbcRepository.deleteIfVersion(productId, expectedVersion, LocalDateTime.now())) {
+                if (!productRepository.existsById(productId)) {
+                    throw new ProductNotFoundException("Product not found with ID: " + productId);
+                }
+                throw versionConflict(productId, expectedVersion);
+            }
+        } else {
+            if (!productRepository.existsById(productId)) {
+                log.error("Product not found with ID: {}", productId);
+                throw new ProductNotFoundException("Product not found with ID: " + productId);
+            }
+
+            try {
+                // The tombstone commits with the delete, so the changes feed cannot miss it
+                transactionTemplate.execute(status -> {
+                    productRepository.deleteById(productId);
+                    productJdbcRepository.recordTombstones(List.of(productId), LocalDateTime.now());
+                    return null;
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw versionConflict(productId, null);
+            }
         }
 
-        productRepository.deleteById(productId);
+        evict(productId);
+        productSearchIndex.delete(productId);
+        eventPublisher.publishEvent(ProductChangeEvent.deleted(productId));
         log.info("Product deleted successfully with ID: {}", productId);
     }
 
+    private StockLevelResponse stockChanged(Long productId, ProductStock stock) {
+        evict(productId);
+        productSearchIndex.updateQuantity(productId, stock.quantity(), stock.version());
+        eventPublisher.publishEvent(ProductChangeEvent.stockChanged(productId, stock.category(), stock.version(),
+                stock.quantity()));
+
+        log.info("Stock of product {} is now {}", productId, stock.quantity());
+        return new StockLevelResponse(productId, stock.quantity());
+    }
+
+    private void evict(Long productId) {
+        productCache.invalidate(productId);
+        productResponseCache.invalidate(productId);
+    }
+
+    private RuntimeException versionConflict(Long productId, Long expectedVersion) {
+        if (expectedVersion != null) {
+            return new PreconditionFailedException("Product " + productId + " is no longer at version " + expectedVersion);
+        }
+        return new ConcurrentUpdateException("Product " + productId + " was modified concurrently, retry the request");
+    }
 
     private Product mapToEntity(ProductDto productDto) {
         Product product = new Product();
@@ -168,6 +617,7 @@ public class ProductService {
                 .category(product.getCategory())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .build();
     }
 }
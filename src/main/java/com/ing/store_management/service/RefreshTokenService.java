@@ -0,0 +1,173 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.exception.AccountDisabledException;
+import com.ing.store_management.exception.InvalidRefreshTokenException;
+import com.ing.store_management.repository.RefreshTokenJdbcRepository;
+import com.ing.store_management.repository.RefreshTokenRecord;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived refresh tokens that let clients obtain new access tokens without sending the password again. Only
+ * a SHA-256 digest of each token is stored. Every refresh rotates the token; a rotated token presented a second
+ * time means it was copied, so the whole family descending from that login is revoked.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    /** The token the client presented, as stored, and the one that replaces it. */
+    public record Rotation(RefreshTokenRecord previous, String refreshToken) {
+    }
+
+    private final RefreshTokenJdbcRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final int purgeBatchSize;
+    private final SecureRandom random = new SecureRandom();
+    private final ScheduledExecutorService purger;
+
+    public RefreshTokenService(RefreshTokenJdbcRepository refreshTokenRepository,
+                               @Value("${app.auth.refresh-token.ttl:14d}") Duration ttl,
+                               @Value("${app.auth.refresh-token.purge-interval:1h}") Duration purgeInterval,
+                               @Value("${app.auth.refresh-token.purge-batch-size:1000}") int purgeBatchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = ttl;
+        this.purgeBatchSize = purgeBatchSize;
+
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-token-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpired, purgeInterval.toMillis(), purgeInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a new token family for a user who has just proven their password.
+     */
+    public String issue(long userId) {
+        String token = newToken();
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.insert(hash(token), UUID.randomUUID(), userId, now, now.plus(ttl));
+        return token;
+    }
+
+    /**
+     * Exchanges {@code token} for its successor. No password is checked: the cost is one indexed lookup and
+     * one conditional update.
+     *
+     * @throws InvalidRefreshTokenException when the token is unknown, expired, already used or revoked
+     * @throws AccountDisabledException    when its user has been disabled
+     */
+    public Rotation rotate(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshTokenRecord current = refreshTokenRepository.findByHash(hash(token))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token is not valid"));
+
+        if (current.isUsed()) {
+            throw reuseDetected(current, now);
+        }
+        if (current.isRevoked()) {
+            throw revoked();
+        }
+        if (current.isExpired(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired, log in again");
+        }
+        if (!current.userEnabled()) {
+            refreshTokenRepository.revokeByUser(current.userId(), now);
+            throw new AccountDisabledException(current.username());
+        }
+
+        String next = newToken();
+        if (!refreshTokenRepository.rotate(current, hash(next), now, now.plus(ttl))) {
+            // Another request rotated or revoked it between the lookup and the update; only the first is reuse
+            boolean used = refreshTokenRepository.findByHash(hash(token))
+                    .map(RefreshTokenRecord::isUsed)
+                    .orElse(false);
+            throw used ? reuseDetected(current, now) : revoked();
+        }
+        return new Rotation(current, next);
+    }
+
+    /**
+     * Ends the session {@code token} belongs to (logout). Unknown tokens are ignored.
+     */
+    public void revoke(String token) {
+        refreshTokenRepository.findByHash(hash(token))
+                .ifPresent(current -> refreshTokenRepository.revokeFamily(current.familyId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Revokes every refresh token of a user, signing them out everywhere once their access tokens expire.
+     */
+    public int revokeAll(long userId) {
+        int revoked = refreshTokenRepository.revokeByUser(userId, LocalDateTime.now());
+        log.info("Revoked {} refresh tokens of user ID: {}", revoked, userId);
+        return revoked;
+    }
+
+    private static InvalidRefreshTokenException revoked() {
+        return new InvalidRefreshTokenException("Refresh token has been revoked");
+    }
+
+    private InvalidRefreshTokenException reuseDetected(RefreshTokenRecord current, LocalDateTime now) {
+        int revoked = refreshTokenRepository.revokeFamily(current.familyId(), now);
+        log.warn("Refresh token reuse detected for user '{}'; revoked {} tokens of its family",
+                current.username(), revoked);
+        return new InvalidRefreshTokenException("Refresh token has already been used");
+    }
+
+    void purgeExpired() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now();
+            int purged = 0;
+            int batch;
+            // Small batches keep each delete's locks and undo log short while logins keep inserting
+            do {
+                batch = refreshTokenRepository.purgeExpiredBefore(cutoff, purgeBatchSize);
+                purged += batch;
+            } while (batch == purgeBatchSize);
+            if (purged > 0) {
+                log.info("Purged {} expired refresh tokens", purged);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to purge expired refresh tokens: {}", e.getMessage());
+        }
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        purger.shutdownNow();
+    }
+}
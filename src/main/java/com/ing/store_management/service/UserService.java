@@ -5,6 +5,7 @@ import com.ing.store_management.exception.DuplicateUserException;
 import com.ing.store_management.exception.UserNotFoundException;
 import com.ing.store_management.model.User;
 import com.ing.store_management.repository.UserRepository;
+import com.ing.store_management.security.SecurityStampRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -18,6 +19,7 @@ import java.util.List;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SecurityStampRegistry securityStamps;
 
     public UserDto createUser(UserDto userDto, String rawPassword) {
         log.info("Creating new user: {}", userDto.getUsername());
@@ -35,6 +37,8 @@ public class UserService {
         User user = mapToEntity(userDto);
         user.setPassword(passwordEncoder.encode(rawPassword));
         User savedUser = userRepository.save(user);
+        // Drops a cached "unknown user" left by requests made before the name existed
+        securityStamps.update(savedUser.getUsername(), savedUser.getSecurityStamp());
 
         log.info("User created successfully with ID: {}", savedUser.getId());
         return mapToDto(savedUser);
@@ -109,7 +113,7 @@ public class UserService {
 
         User.Role oldRole = user.getRole();
         user.setRole(newRole);
-        User updatedUser = userRepository.save(user);
+        User updatedUser = saveWithNewSecurityStamp(user);
 
         log.info("Role updated successfully for user '{}' from {} to {}",
                 user.getUsername(), oldRole, newRole);
@@ -127,7 +131,7 @@ public class UserService {
                 });
 
         user.setEnabled(true);
-        User updatedUser = userRepository.save(user);
+        User updatedUser = saveWithNewSecurityStamp(user);
 
         log.info("User '{}' enabled successfully", user.getUsername());
         return mapToDto(updatedUser);
@@ -143,12 +147,20 @@ public class UserService {
                 });
 
         user.setEnabled(false);
-        User updatedUser = userRepository.save(user);
+        User updatedUser = saveWithNewSecurityStamp(user);
 
         log.info("User '{}' disabled successfully", user.getUsername());
         return mapToDto(updatedUser);
     }
 
+    // Tokens issued before this change carry the old stamp and are refused from now on
+    private User saveWithNewSecurityStamp(User user) {
+        user.setSecurityStamp(user.getSecurityStamp() + 1);
+        User savedUser = userRepository.save(user);
+        securityStamps.update(savedUser.getUsername(), savedUser.getSecurityStamp());
+        return savedUser;
+    }
+
     private UserDto mapToDto(User user) {
         return UserDto.builder()
                 .id(user.getId())
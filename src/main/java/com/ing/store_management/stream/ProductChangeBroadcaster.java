@@ -0,0 +1,258 @@
+package com.ing.store_management.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.store_management.dto.ProductChangeEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed product changes to Server-Sent Events subscribers. Each event is serialized once, numbered,
+ * kept in a replay ring for Last-Event-ID resumes and queued to every interested subscriber by a single
+ * dispatcher thread. Idle subscribers hold no thread, only their async request and an empty buffer.
+ */
+@Component
+@Slf4j
+public class ProductChangeBroadcaster implements MeterBinder {
+
+    public enum OverflowPolicy {
+        /** Drop events for a full buffer and send a {@code resync} event once it drains. */
+        DROP,
+        /** End the slow client's stream; it reconnects and resumes from its Last-Event-ID if still in the ring. */
+        DISCONNECT
+    }
+
+    private static final String EVENT_NAME = "product";
+    private static final String RESYNC_EVENT_NAME = "resync";
+
+    private record Frame(long sequence, String category, String previousCategory, Set<DataWithMediaType> data) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int replaySize;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration timeout;
+    private final long sendTimeoutNanos;
+    // Event ids are "<epoch>-<sequence>", so ids from before a restart are recognised and answered with a resync
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+    private final Set<DataWithMediaType> resync = SseEmitter.event().name(RESYNC_EVENT_NAME)
+            .data("{\"type\":\"RESYNC\"}", MediaType.APPLICATION_JSON).build();
+
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+    private final Set<ProductChangeSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Publishing and subscribing both hold this lock, so a resuming client sees every event exactly once
+    private final Object lock = new Object();
+    private final ArrayDeque<Frame> replay = new ArrayDeque<>();
+    private long sequence;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong disconnected = new AtomicLong();
+
+    public ProductChangeBroadcaster(ObjectMapper objectMapper,
+                                    @Value("${app.stream.buffer-size:256}") int bufferSize,
+                                    @Value("${app.stream.replay-size:10000}") int replaySize,
+                                    @Value("${app.stream.overflow-policy:drop}") OverflowPolicy overflowPolicy,
+                                    @Value("${app.stream.heartbeat-interval:30s}") Duration heartbeatInterval,
+                                    @Value("${app.stream.timeout:30m}") Duration timeout,
+                                    @Value("${app.stream.sender-threads:4}") int senderThreads,
+                                    @Value("${app.stream.send-timeout:10s}") Duration sendTimeout) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.overflowPolicy = overflowPolicy;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-stream-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "product-stream-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatInterval.toMillis(),
+                heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        long watchdogMillis = Math.max(1, sendTimeout.toMillis() / 2);
+        dispatcher.scheduleWithFixedDelay(this::disconnectStuckSenders, watchdogMillis, watchdogMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of changes in the given categories (all when empty). With a {@code lastEventId} the
+     * missed events are replayed first, or a single {@code resync} event is sent when they are no longer
+     * available or would not fit in the client's buffer.
+     */
+    public SseEmitter subscribe(Set<String> categories, String lastEventId) {
+        return subscribe(new SseEmitter(timeout.toMillis()), categories, lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Set<String> categories, String lastEventId) {
+        ProductChangeSubscriber subscriber = new ProductChangeSubscriber(emitter, categories, bufferSize, senders,
+                resync, subscribers::remove);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        synchronized (lock) {
+            subscribers.add(subscriber);
+            if (lastEventId != null) {
+                replayTo(subscriber, lastEventId);
+            }
+        }
+        log.debug("Stream subscriber connected - categories: {}, last event: {}, subscribers: {}",
+                categories, lastEventId, subscribers.size());
+        return emitter;
+    }
+
+    // Transactional callers publish when they commit; everything else is already committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeEvent event) {
+        dispatcher.execute(() -> broadcast(event));
+    }
+
+    void broadcast(ProductChangeEvent event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} event for product {}: {}", event.getType(), event.getProductId(),
+                    e.getMessage());
+            return;
+        }
+
+        synchronized (lock) {
+            long id = ++sequence;
+            Set<DataWithMediaType> data = SseEmitter.event()
+                    .id(epoch + "-" + id)
+                    .name(EVENT_NAME)
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build();
+            replay.addLast(new Frame(id, event.getCategory(), event.getPreviousCategory(), data));
+            if (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+
+            for (ProductChangeSubscriber subscriber : subscribers) {
+                if (subscriber.wants(event.getCategory(), event.getPreviousCategory()) && !subscriber.offer(data)) {
+                    overflow(subscriber);
+                }
+            }
+        }
+        published.incrementAndGet();
+    }
+
+    private void replayTo(ProductChangeSubscriber subscriber, String lastEventId) {
+        long after = parseSequence(lastEventId);
+        long oldest = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+        if (after < oldest - 1 || after > sequence) {
+            subscriber.offer(resync);
+            return;
+        }
+
+        List<Frame> missed = replay.stream()
+                .filter(frame -> frame.sequence() > after
+                        && subscriber.wants(frame.category(), frame.previousCategory()))
+                .toList();
+        if (missed.size() > bufferSize) {
+            subscriber.offer(resync);
+            return;
+        }
+        missed.forEach(frame -> subscriber.offer(frame.data()));
+    }
+
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void overflow(ProductChangeSubscriber subscriber) {
+        if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+            disconnected.incrementAndGet();
+            subscriber.disconnect();
+        } else {
+            dropped.incrementAndGet();
+            subscriber.markLagged();
+        }
+    }
+
+    private void sendHeartbeats() {
+        subscribers.forEach(subscriber -> subscriber.heartbeat(heartbeat));
+    }
+
+    // A client that stops reading blocks a sender thread in its write; without this it would hold it until
+    // the container's own timeouts, and a few such clients would stall every stream
+    private void disconnectStuckSenders() {
+        long now = System.nanoTime();
+        for (ProductChangeSubscriber subscriber : subscribers) {
+            if (subscriber.sendStuck(now, sendTimeoutNanos)) {
+                disconnected.incrementAndGet();
+                subscriber.disconnect();
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(ProductChangeSubscriber::disconnect);
+        senders.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.stream.subscribers", subscribers, Set::size)
+                .description("Open product change streams")
+                .register(registry);
+        FunctionCounter.builder("product.stream.events.published", published, AtomicLong::get)
+                .description("Product change events broadcast to subscribers")
+                .register(registry);
+        FunctionCounter.builder("product.stream.events.dropped", dropped, AtomicLong::get)
+                .description("Events not queued because a subscriber's buffer was full")
+                .register(registry);
+        FunctionCounter.builder("product.stream.disconnects", disconnected, AtomicLong::get)
+                .description("Subscribers disconnected for falling behind or a write exceeding the send timeout")
+                .register(registry);
+    }
+}
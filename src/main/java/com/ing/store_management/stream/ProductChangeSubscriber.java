@@ -0,0 +1,178 @@
+package com.ing.store_management.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * One stream client. Frames are queued in a bounded buffer and written by the shared sender pool, so a slow
+ * client only fills its own buffer and never blocks the broadcaster or other clients. A client that stops
+ * reading blocks its write instead; the broadcaster's watchdog disconnects it once that write has taken too long.
+ */
+final class ProductChangeSubscriber {
+
+    private final SseEmitter emitter;
+    private final Set<String> categories;
+    private final int capacity;
+    private final Executor sender;
+    private final Set<DataWithMediaType> resync;
+    private final Consumer<ProductChangeSubscriber> onClose;
+
+    // Guarded by this
+    private final ArrayDeque<Set<DataWithMediaType>> buffer = new ArrayDeque<>();
+    private boolean draining;
+    private boolean lagged;
+    private boolean closed;
+    private Thread sendingThread;
+    private long sendStartedNanos;
+
+    ProductChangeSubscriber(SseEmitter emitter, Set<String> categories, int capacity, Executor sender,
+                            Set<DataWithMediaType> resync, Consumer<ProductChangeSubscriber> onClose) {
+        this.emitter = emitter;
+        this.categories = categories;
+        this.capacity = capacity;
+        this.sender = sender;
+        this.resync = resync;
+        this.onClose = onClose;
+    }
+
+    /**
+     * A product moved between categories is delivered to subscribers of either one, so clients filtering on
+     * the old category see it leave.
+     */
+    boolean wants(String category, String previousCategory) {
+        return category == null || categories.isEmpty() || categories.contains(category)
+                || previousCategory != null && categories.contains(previousCategory);
+    }
+
+    /**
+     * Queues a frame for sending; false when the buffer is full.
+     */
+    synchronized boolean offer(Set<DataWithMediaType> frame) {
+        if (closed) {
+            return true;
+        }
+        if (buffer.size() >= capacity) {
+            return false;
+        }
+        buffer.addLast(frame);
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Queues a heartbeat unless real frames are already waiting; a failed write is how dead clients are found.
+     */
+    synchronized void heartbeat(Set<DataWithMediaType> frame) {
+        if (!closed && buffer.isEmpty()) {
+            buffer.addLast(frame);
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Records that frames were dropped; the client is told to resync once its buffer has drained.
+     */
+    synchronized void markLagged() {
+        lagged = true;
+    }
+
+    /**
+     * True when a write to this client has been in progress for at least {@code timeoutNanos}.
+     */
+    synchronized boolean sendStuck(long nowNanos, long timeoutNanos) {
+        return sendingThread != null && nowNanos - sendStartedNanos >= timeoutNanos;
+    }
+
+    /**
+     * Ends the response; an {@code EventSource} client reconnects and resumes from its Last-Event-ID.
+     * A write in progress is interrupted and the sender completes the response once it returns, so this
+     * never waits on the client.
+     */
+    void disconnect() {
+        close();
+        synchronized (this) {
+            if (sendingThread != null) {
+                sendingThread.interrupt();
+                return;
+            }
+        }
+        complete();
+    }
+
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+        }
+        onClose.accept(this);
+    }
+
+    private void complete() {
+        try {
+            emitter.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!draining) {
+            draining = true;
+            sender.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        // Sends at most one buffer's worth before yielding the thread to other clients
+        for (int sent = 0; ; sent++) {
+            Set<DataWithMediaType> frame;
+            synchronized (this) {
+                if (sent == capacity && !buffer.isEmpty()) {
+                    sender.execute(this::drain);
+                    return;
+                }
+                frame = buffer.pollFirst();
+                if (frame == null && lagged) {
+                    lagged = false;
+                    frame = resync;
+                }
+                if (frame == null || closed) {
+                    draining = false;
+                    return;
+                }
+                sendingThread = Thread.currentThread();
+                sendStartedNanos = System.nanoTime();
+            }
+            boolean failed = false;
+            try {
+                emitter.send(frame);
+            } catch (IOException | IllegalStateException e) {
+                failed = true;
+            }
+            boolean disconnected;
+            synchronized (this) {
+                sendingThread = null;
+                // Clears an interrupt from disconnect() before this pool thread moves on to other clients
+                Thread.interrupted();
+                disconnected = closed;
+            }
+            if (disconnected) {
+                complete();
+                return;
+            }
+            if (failed) {
+                close();
+                return;
+            }
+        }
+    }
+}
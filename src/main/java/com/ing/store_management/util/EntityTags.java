@@ -0,0 +1,99 @@
+package com.ing.store_management.util;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * Strong entity tags derived from the optimistic-lock version of a row.
+ */
+public final class EntityTags {
+
+    // Versions start at zero, so this never matches a stored row
+    private static final long NO_MATCH = -1;
+
+    private EntityTags() {
+    }
+
+    public static String fromVersion(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Tag for one page of a listing: a digest of its (id, version) pairs in response order, plus what the page
+     * reports about the rest of the listing (the total of a {@link Page}, whether a {@link Slice} has a next
+     * page). Any insert, delete or update of a listed row changes it.
+     */
+    public static <T> String fromSlice(Slice<T> slice, Function<T, Long> id, Function<T, Long> version) {
+        MessageDigest digest = sha256();
+        ByteBuffer pair = ByteBuffer.allocate(2 * Long.BYTES);
+        for (T item : slice) {
+            pair.clear();
+            pair.putLong(id.apply(item)).putLong(version.apply(item));
+            digest.update(pair.array());
+        }
+        long total = slice instanceof Page<?> page ? page.getTotalElements() : -1;
+        digest.update(ByteBuffer.allocate(Long.BYTES + 1)
+                .putLong(total)
+                .put((byte) (slice.hasNext() ? 1 : 0))
+                .array());
+        // 128 bits are plenty to tell listing states apart
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Returns the version an If-Match header requires, or {@code null} when the header is absent or {@code *}.
+     * Weak or foreign tags cannot match under the strong comparison If-Match uses.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return NO_MATCH;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_MATCH;
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header matches {@code etag}, i.e. the client's copy is current. Uses the weak
+     * comparison the header calls for, so {@code W/"3"} matches {@code "3"}.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
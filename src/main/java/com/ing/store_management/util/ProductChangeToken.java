@@ -0,0 +1,61 @@
+package com.ing.store_management.util;
+
+import com.ing.store_management.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque high-watermark for the changes feed: the (changed at, id) key of the last change a client has
+ * seen. Encoded as URL-safe base64.
+ */
+public final class ProductChangeToken {
+
+    private static final String VERSION = "c1";
+    private static final String SEPARATOR = "|";
+
+    /** Watermark before every change; used when a client syncs for the first time. */
+    public static final ProductChangeToken START = new ProductChangeToken(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final LocalDateTime changedAt;
+    private final long id;
+
+    public ProductChangeToken(LocalDateTime changedAt, long id) {
+        this.changedAt = changedAt;
+        this.id = id;
+    }
+
+    public static ProductChangeToken decode(String token) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid change token");
+        }
+
+        String[] parts = decoded.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            throw new InvalidRequestException("Invalid change token");
+        }
+
+        try {
+            return new ProductChangeToken(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Invalid change token");
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, changedAt.toString(), Long.toString(id));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime changedAt() {
+        return changedAt;
+    }
+
+    public long id() {
+        return id;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ing.store_management.util;
+
+import com.ing.store_management.exception.InvalidRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset continuation token for product listings: the sort field and direction,
+ * plus the last row's sort key and id. Encoded as URL-safe base64.
+ */
+public final class ProductCursor {
+
+    public static final Set<String> SORTABLE_FIELDS = Set.of("name", "price", "quantity", "createdAt");
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private static final Map<String, Function<String, Object>> KEY_PARSERS = Map.of(
+            "name", value -> value,
+            "price", BigDecimal::new,
+            "quantity", Integer::valueOf,
+            "createdAt", LocalDateTime::parse
+    );
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final Long lastId;
+    private final Object lastKey;
+
+    private ProductCursor(String sortBy, Sort.Direction direction, Long lastId, Object lastKey) {
+        this.sortBy = sortBy;
+        this.direction = direction;
+        this.lastId = lastId;
+        this.lastKey = lastKey;
+    }
+
+    public static ProductCursor first(String sortBy, String sortDir) {
+        return new ProductCursor(validateSortField(sortBy), parseDirection(sortDir), null, null);
+    }
+
+    public static ProductCursor decode(String token) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+
+        String[] parts = decoded.split("\\" + SEPARATOR, 5);
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+
+        try {
+            String sortBy = validateSortField(parts[1]);
+            return new ProductCursor(sortBy, Sort.Direction.valueOf(parts[2]),
+                    Long.valueOf(parts[3]), KEY_PARSERS.get(sortBy).apply(parts[4]));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    public static String validateSortField(String sortBy) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new InvalidRequestException("Cannot sort by '" + sortBy + "'. Allowed fields: " + SORTABLE_FIELDS);
+        }
+        return sortBy;
+    }
+
+    public static Sort.Direction parseDirection(String sortDir) {
+        return "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    public Sort sort() {
+        return Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    public ScrollPosition toScrollPosition() {
+        if (lastId == null) {
+            return ScrollPosition.keyset();
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortBy, lastKey);
+        keys.put("id", lastId);
+        return ScrollPosition.forward(keys);
+    }
+
+    public String next(KeysetScrollPosition position) {
+        Map<String, ?> keys = position.getKeys();
+        Object key = keys.get(sortBy);
+        String keyValue = key instanceof BigDecimal price ? price.toPlainString() : String.valueOf(key);
+
+        String raw = String.join(SEPARATOR, VERSION, sortBy, direction.name(),
+                String.valueOf(keys.get("id")), keyValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,30 @@
+-- Baseline schema, previously generated by Hibernate ddl-auto
+
+CREATE TABLE users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username    VARCHAR(50)  NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    first_name  VARCHAR(50),
+    last_name   VARCHAR(50),
+    role        VARCHAR(20)  NOT NULL,
+    is_enabled  BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT ck_users_role CHECK (role IN ('ADMIN', 'MANAGER', 'EMPLOYEE'))
+);
+
+CREATE TABLE product (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(100)   NOT NULL,
+    description VARCHAR(500),
+    price       NUMERIC(10, 2) NOT NULL,
+    quantity    INTEGER        NOT NULL,
+    category    VARCHAR(50)    NOT NULL,
+    created_at  TIMESTAMP(6)   NOT NULL,
+    updated_at  TIMESTAMP(6),
+    -- Case-insensitive name lookups go through this column; H2 has no expression indexes
+    name_key    VARCHAR(100) GENERATED ALWAYS AS (LOWER(name))
+);
@@ -0,0 +1,13 @@
+-- Indexes backing the ProductRepository and UserRepository queries.
+-- Sort indexes end with id so keyset pagination (sort key, id) is a range scan.
+
+CREATE INDEX idx_product_category ON product (category);
+CREATE INDEX idx_product_name_key ON product (name_key);
+CREATE INDEX idx_product_quantity ON product (quantity, id);
+CREATE INDEX idx_product_name ON product (name, id);
+CREATE INDEX idx_product_price ON product (price, id);
+CREATE INDEX idx_product_created_at ON product (created_at, id);
+CREATE INDEX idx_product_updated_at ON product (updated_at, id);
+
+CREATE INDEX idx_users_role ON users (role);
+CREATE INDEX idx_users_enabled ON users (is_enabled);
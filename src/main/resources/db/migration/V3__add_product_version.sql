@@ -0,0 +1,3 @@
+-- Optimistic locking: every write bumps the version, which is exposed to clients as the product ETag
+
+ALTER TABLE product ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
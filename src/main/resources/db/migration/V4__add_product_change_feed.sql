@@ -0,0 +1,12 @@
+-- Changes feed: rows changed after a (updated_at, id) watermark come from idx_product_updated_at,
+-- deletes from tombstones kept in the same key order
+
+UPDATE product SET updated_at = created_at WHERE updated_at IS NULL;
+ALTER TABLE product ALTER COLUMN updated_at SET NOT NULL;
+
+CREATE TABLE product_tombstone (
+    product_id  BIGINT       NOT NULL PRIMARY KEY,
+    deleted_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_product_tombstone_deleted_at ON product_tombstone (deleted_at, product_id);
@@ -0,0 +1,29 @@
+-- Low-stock thresholds, per product or per category, and the alerts raised against them
+
+CREATE TABLE low_stock_threshold (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id   BIGINT,
+    category     VARCHAR(50),
+    low_level    INTEGER      NOT NULL,
+    reset_level  INTEGER      NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_low_stock_threshold_product UNIQUE (product_id),
+    CONSTRAINT uk_low_stock_threshold_category UNIQUE (category),
+    CONSTRAINT ck_low_stock_threshold_target CHECK ((product_id IS NULL) <> (category IS NULL)),
+    CONSTRAINT ck_low_stock_threshold_levels CHECK (low_level >= 0 AND reset_level > low_level)
+);
+
+-- An alert is open until cleared_at is set; at most one is open per product
+CREATE TABLE low_stock_alert (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id        BIGINT       NOT NULL,
+    category          VARCHAR(50)  NOT NULL,
+    quantity          INTEGER      NOT NULL,
+    low_level         INTEGER      NOT NULL,
+    raised_at         TIMESTAMP(6) NOT NULL,
+    cleared_at        TIMESTAMP(6),
+    cleared_quantity  INTEGER
+);
+
+CREATE INDEX idx_low_stock_alert_open ON low_stock_alert (cleared_at, id);
+CREATE INDEX idx_low_stock_alert_product ON low_stock_alert (product_id, id);
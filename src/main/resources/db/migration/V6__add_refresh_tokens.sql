@@ -0,0 +1,19 @@
+-- Refresh tokens are stored only as SHA-256 digests. A family is the chain of tokens rotated from one login;
+-- presenting a token that was already rotated revokes its whole family.
+
+CREATE TABLE refresh_token (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_hash  BINARY(32)   NOT NULL,
+    family_id   UUID         NOT NULL,
+    user_id     BIGINT       NOT NULL,
+    issued_at   TIMESTAMP(6) NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    used_at     TIMESTAMP(6),
+    revoked_at  TIMESTAMP(6),
+    CONSTRAINT uk_refresh_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_refresh_token_family ON refresh_token (family_id);
+CREATE INDEX idx_refresh_token_user ON refresh_token (user_id);
+CREATE INDEX idx_refresh_token_expires_at ON refresh_token (expires_at);
@@ -0,0 +1,3 @@
+-- Bumped whenever a user's role or enabled flag changes; access tokens carry the stamp they were issued with
+
+ALTER TABLE users ADD COLUMN security_stamp INTEGER DEFAULT 0 NOT NULL;
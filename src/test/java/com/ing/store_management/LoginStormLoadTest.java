@@ -0,0 +1,167 @@
+package com.ing.store_management;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures product GET latency on its own and again while a crowd of clients logs in as fast as it can. Password
+ * checks run on a bounded pool, so the storm is absorbed by 429s rather than by every core hashing BCrypt. Run
+ * with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+class LoginStormLoadTest {
+
+    private static final int READERS = 50;
+    private static final int REQUESTS_PER_READER = 200;
+    private static final int LOGIN_CLIENTS = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private record Result(long p50Micros, long p99Micros, int errors) {
+    }
+
+    @Test
+    void productReadsDuringLoginStorm() throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(StoreManagementApplication.class)
+                .properties(
+                        "server.port=0",
+                        // Every client shares one user and one address; this measures throughput, not fairness
+                        "app.rate-limit.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:login-storm",
+                        "app.search.index-dir=${java.io.tmpdir}/store-management/login-storm-index",
+                        "logging.level.com.ing.store_management.controller=WARN",
+                        "logging.level.com.ing.store_management.service=WARN",
+                        "logging.level.com.ing.store_management.security=ERROR");
+
+        try (ConfigurableApplicationContext context = application.run()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newFixedThreadPool(16))
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            String token = objectMapper.readTree(login(client, baseUrl).body()).get("token").asText();
+
+            Result baseline = read(client, baseUrl, token);
+            log.info("Product reads alone: {}", baseline);
+
+            AtomicBoolean storming = new AtomicBoolean(true);
+            AtomicInteger loggedIn = new AtomicInteger();
+            AtomicInteger throttled = new AtomicInteger();
+            AtomicInteger loginErrors = new AtomicInteger();
+            ExecutorService storm = Executors.newFixedThreadPool(LOGIN_CLIENTS);
+            Result duringStorm;
+            try {
+                for (int c = 0; c < LOGIN_CLIENTS; c++) {
+                    storm.submit(() -> {
+                        while (storming.get()) {
+                            int status = login(client, baseUrl).statusCode();
+                            if (status == 200) {
+                                loggedIn.incrementAndGet();
+                            } else if (status == 429) {
+                                throttled.incrementAndGet();
+                            } else {
+                                loginErrors.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    });
+                }
+                // Let the hashing pool fill up before measuring
+                Thread.sleep(1_000);
+                duringStorm = read(client, baseUrl, token);
+            } finally {
+                storming.set(false);
+                storm.shutdown();
+                storm.awaitTermination(1, TimeUnit.MINUTES);
+            }
+
+            log.info("Product reads during login storm: {}", duringStorm);
+            log.info("Logins: {} succeeded, {} throttled with 429, {} failed; read p99 {} -> {} us",
+                    loggedIn.get(), throttled.get(), loginErrors.get(), baseline.p99Micros(), duringStorm.p99Micros());
+
+            assertThat(baseline.errors()).isZero();
+            assertThat(duringStorm.errors()).isZero();
+            assertThat(loginErrors.get()).isZero();
+            assertThat(loggedIn.get()).isPositive();
+            assertThat(duringStorm.p99Micros())
+                    .isLessThan(Math.max(baseline.p99Micros() * 3, baseline.p99Micros() + 50_000));
+        }
+    }
+
+    private HttpResponse<String> login(HttpClient client, String baseUrl) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Result read(HttpClient client, String baseUrl, String token) throws Exception {
+        List<URI> uris = List.of(
+                URI.create(baseUrl + "/api/products/1"),
+                URI.create(baseUrl + "/api/products/available?size=20"),
+                URI.create(baseUrl + "/api/products/category/Electronics?includeTotal=false"));
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(READERS * REQUESTS_PER_READER));
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService readers = Executors.newFixedThreadPool(READERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                int readerId = r;
+                futures.add(readers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_READER; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(uris.get((readerId + i) % uris.size()))
+                                .header("Authorization", "Bearer " + token)
+                                .build();
+                        long begin = System.nanoTime();
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latencies.add(System.nanoTime() - begin);
+                        if (status != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+
+            List<Long> sorted = latencies.stream().sorted().toList();
+            return new Result(
+                    TimeUnit.NANOSECONDS.toMicros(sorted.get(sorted.size() / 2)),
+                    TimeUnit.NANOSECONDS.toMicros(sorted.get((int) (sorted.size() * 0.99))),
+                    errors.get());
+        } finally {
+            readers.shutdownNow();
+        }
+    }
+}
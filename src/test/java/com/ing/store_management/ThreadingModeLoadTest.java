@@ -0,0 +1,151 @@
+package com.ing.store_management;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Drives the same read-heavy workload from many concurrent clients against the default platform-thread mode
+ * and the {@code virtual-threads} profile, each in a fresh application on a random port. Run with
+ * {@code mvn test -Pbenchmark}; the virtual-thread half needs Java 21+ and is skipped on older JREs.
+ */
+@Tag("benchmark")
+@Slf4j
+class ThreadingModeLoadTest {
+
+    private static final int CLIENTS = 500;
+    private static final int REQUESTS_PER_CLIENT = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private record Result(double requestsPerSecond, long p50Micros, long p99Micros, int errors, int rejected) {
+    }
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        Result platform = run("platform");
+        log.info("Platform threads: {}", platform);
+        assertThat(platform.errors()).isZero();
+
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21+, running on "
+                + Runtime.version());
+        Result virtual = run("virtual-threads");
+        log.info("Virtual threads: {}", virtual);
+        log.info("Throughput {} -> {} req/s, p99 {} -> {} us, rejected for lack of a connection: {}",
+                String.format("%.0f", platform.requestsPerSecond()), String.format("%.0f", virtual.requestsPerSecond()),
+                platform.p99Micros(), virtual.p99Micros(), virtual.rejected());
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private Result run(String mode) throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(StoreManagementApplication.class)
+                .properties(
+                        "server.port=0",
+                        // Every client shares one user and one address; this measures throughput, not fairness
+                        "app.rate-limit.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "app.search.index-dir=${java.io.tmpdir}/store-management/load-" + mode + "-index",
+                        "logging.level.com.ing.store_management.controller=WARN",
+                        "logging.level.com.ing.store_management.service=WARN");
+        if (!mode.equals("platform")) {
+            application.profiles(mode);
+        }
+
+        try (ConfigurableApplicationContext context = application.run()) {
+            if (!mode.equals("platform")) {
+                // Guards against comparing platform threads with themselves
+                assertThat(Threading.VIRTUAL.isActive(context.getEnvironment())).isTrue();
+            }
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(Executors.newFixedThreadPool(16))
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            return load(client, baseUrl, login(client, baseUrl));
+        }
+    }
+
+    private String login(HttpClient client, String baseUrl) throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private Result load(HttpClient client, String baseUrl, String token) throws Exception {
+        List<URI> uris = List.of(
+                URI.create(baseUrl + "/api/products/1"),
+                URI.create(baseUrl + "/api/products/available?size=20"),
+                URI.create(baseUrl + "/api/products/category/Electronics?includeTotal=false"));
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(CLIENTS * REQUESTS_PER_CLIENT));
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientId = c;
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        HttpRequest request = HttpRequest.newBuilder(uris.get((clientId + i) % uris.size()))
+                                .header("Authorization", "Bearer " + token)
+                                .build();
+                        long begin = System.nanoTime();
+                        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        latencies.add(System.nanoTime() - begin);
+                        if (status == 503) {
+                            rejected.incrementAndGet();
+                        } else if (status != 200) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+            long elapsedNanos = System.nanoTime() - begin;
+
+            List<Long> sorted = latencies.stream().sorted().toList();
+            return new Result(
+                    sorted.size() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos,
+                    TimeUnit.NANOSECONDS.toMicros(sorted.get(sorted.size() / 2)),
+                    TimeUnit.NANOSECONDS.toMicros(sorted.get((int) (sorted.size() * 0.99))),
+                    errors.get(),
+                    rejected.get());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
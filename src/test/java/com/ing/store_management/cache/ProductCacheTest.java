@@ -0,0 +1,70 @@
+package com.ing.store_management.cache;
+
+import com.ing.store_management.dto.ProductDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductCacheTest {
+
+    private final ProductCache productCache = new ProductCache(100, Duration.ofMinutes(5));
+
+    @Test
+    void getAll_CachesLoadedEntries() {
+        productCache.getAll(List.of(1L, 2L), missing -> Map.of(1L, product(1L, 5), 2L, product(2L, 6)));
+
+        Map<Long, ProductDto> second = productCache.getAll(List.of(1L, 2L), missing -> {
+            throw new AssertionError("Loaded again: " + missing);
+        });
+
+        assertThat(second).containsOnlyKeys(1L, 2L);
+        assertThat(productCache.getIfPresent(1L).getQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    void getAll_InvalidatedWhileLoading_ReturnsRowsWithoutCachingThem() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+
+        // The batch read sees the row as it was before a concurrent update commits and evicts it
+        CompletableFuture<Map<Long, ProductDto>> batch = CompletableFuture.supplyAsync(() ->
+                productCache.getAll(List.of(1L, 2L), missing -> {
+                    loading.countDown();
+                    await(committed);
+                    return Map.of(1L, product(1L, 5), 2L, product(2L, 6));
+                }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        productCache.invalidate(1L);
+        committed.countDown();
+
+        assertThat(batch.get(5, TimeUnit.SECONDS)).containsOnlyKeys(1L, 2L);
+        assertThat(productCache.getIfPresent(1L)).isNull();
+        ProductDto reloaded = productCache.get(1L, id -> product(1L, 50));
+        assertThat(reloaded.getQuantity()).isEqualTo(50);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ProductDto product(Long id, int quantity) {
+        return ProductDto.builder()
+                .id(id)
+                .name("Product " + id)
+                .quantity(quantity)
+                .category("Home")
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.ing.store_management.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.store_management.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+public class RateLimitFilterTest {
+
+    private static final String SECRET = "testSecretKey12345678901234567890123456789012345678901234567890";
+
+    private final JwtUtil jwtUtil = spy(new JwtUtil(SECRET, 3600, 100));
+
+    private final RateLimitFilter filter = new RateLimitFilter(jwtUtil, new ObjectMapper().findAndRegisterModules(),
+            new RateLimitProperties(true, 1000, List.of(
+                    new RateLimitProperties.Route("/api/auth/", RateLimitProperties.KeyType.IP, 2, Duration.ofMinutes(1)),
+                    new RateLimitProperties.Route("/api/products", RateLimitProperties.KeyType.USER, 3,
+                            Duration.ofMinutes(1)))));
+
+    @Test
+    void authEndpoint_IsLimitedPerAddress() throws Exception {
+        assertThat(send(login("10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(send(login("10.0.0.1")).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = send(login("10.0.0.1"));
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rejected.getHeader("Retry-After"))).isBetween(1L, 30L);
+        assertThat(rejected.getContentAsString()).contains("\"error\":\"TOO_MANY_REQUESTS\"");
+        assertThat(send(login("10.0.0.2")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void otherEndpoints_AreLimitedPerTokenSubject() throws Exception {
+        String alice = jwtUtil.generateToken("alice", "EMPLOYEE", 0);
+        String bob = jwtUtil.generateToken("bob", "EMPLOYEE", 0);
+        // As the JWT filter did on each user's earlier requests
+        jwtUtil.verify(alice);
+        jwtUtil.verify(bob);
+        for (int i = 0; i < 3; i++) {
+            assertThat(send(products(alice)).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(send(products(alice)).getStatus()).isEqualTo(429);
+        // Same address, different user
+        assertThat(send(products(bob)).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void forgedToken_IsLimitedByAddress() throws Exception {
+        String forged = new JwtUtil(SECRET.replace('1', '9'), 3600, 100).generateToken("alice", "ADMIN", 0);
+        for (int i = 0; i < 3; i++) {
+            send(products(forged));
+        }
+
+        assertThat(send(products(forged)).getStatus()).isEqualTo(429);
+        verify(jwtUtil, never()).verify(anyString());
+
+        String alice = jwtUtil.generateToken("alice", "EMPLOYEE", 0);
+        jwtUtil.verify(alice);
+        assertThat(send(products(alice)).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void unmatchedPaths_AreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(send(new MockHttpServletRequest("GET", "/api/users/1")).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void tokenBucket_RefillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket();
+        long interval = TimeUnit.SECONDS.toNanos(10);
+        long capacity = interval * 2;
+
+        assertThat(bucket.tryAcquire(0, interval, capacity)).isZero();
+        assertThat(bucket.tryAcquire(0, interval, capacity)).isZero();
+        assertThat(bucket.tryAcquire(0, interval, capacity)).isEqualTo(interval);
+        assertThat(bucket.tryAcquire(interval, interval, capacity)).isZero();
+        assertThat(bucket.tryAcquire(interval, interval, capacity)).isPositive();
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest login(String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(address);
+        return request;
+    }
+
+    private static MockHttpServletRequest products(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
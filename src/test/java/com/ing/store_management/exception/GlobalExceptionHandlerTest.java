@@ -0,0 +1,37 @@
+package com.ing.store_management.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/products"));
+
+    @Test
+    void connectionCheckoutTimeout_Returns503WithRetryAfter() {
+        CannotCreateTransactionException ex = new CannotCreateTransactionException("Could not open JPA EntityManager",
+                new SQLTransientConnectionException("HikariPool-1 - Connection is not available, request timed out"));
+
+        ResponseEntity<ErrorResponse> response = handler.handleConnectionFailure(ex, request);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(503);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(response.getBody().getError()).isEqualTo("TOO_BUSY");
+    }
+
+    @Test
+    void otherConnectionFailures_Return500() {
+        CannotCreateTransactionException ex = new CannotCreateTransactionException("Could not open JPA EntityManager",
+                new IllegalStateException("Database is closed"));
+
+        assertThat(handler.handleConnectionFailure(ex, request).getStatusCode().value()).isEqualTo(500);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ing.store_management.repository;
+
+import com.ing.store_management.dto.ProductPatchRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk writes against a real schema, where a row changes between the chunked id select and the write.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-jdbc",
+        "app.search.index-dir=${java.io.tmpdir}/store-management/product-jdbc-index"
+})
+class ProductJdbcRepositoryTest {
+
+    @Autowired
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM product");
+        jdbcTemplate.update("DELETE FROM product_tombstone");
+        jdbcTemplate.update("""
+                INSERT INTO product (name, description, price, quantity, category, created_at, updated_at)
+                SELECT 'Seasonal ' || X, 'Description ' || X, 10.00, 0, 'Seasonal', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, 3)
+                """);
+    }
+
+    @Test
+    void deleteMatching_RowRestockedAfterSelect_IsKept() {
+        List<Long> ids = productJdbcRepository.findIdsAfter("Seasonal", 0, 0, 10);
+        assertThat(ids).hasSize(3);
+        jdbcTemplate.update("UPDATE product SET quantity = 5 WHERE id = ?", ids.get(1));
+
+        List<Long> deleted = productJdbcRepository.deleteMatching(ids, "Seasonal", 0, LocalDateTime.now());
+
+        assertThat(deleted).containsExactlyInAnyOrder(ids.get(0), ids.get(2));
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM product", Long.class)).containsExactly(ids.get(1));
+        assertThat(jdbcTemplate.queryForList("SELECT product_id FROM product_tombstone", Long.class))
+                .containsExactlyInAnyOrder(ids.get(0), ids.get(2));
+    }
+
+    @Test
+    void patch_CategoryChange_ReturnsPreviousCategory() {
+        Long id = productJdbcRepository.findIdsAfter("Seasonal", null, 0, 1).get(0);
+
+        PatchedProduct moved = productJdbcRepository.patch(id, ProductPatchRequest.builder()
+                .category("Clearance").build(), null, LocalDateTime.now()).orElseThrow();
+        PatchedProduct repriced = productJdbcRepository.patch(id, ProductPatchRequest.builder()
+                .price(new BigDecimal("7.50")).build(), null, LocalDateTime.now()).orElseThrow();
+
+        assertThat(moved.product().getCategory()).isEqualTo("Clearance");
+        assertThat(moved.previousCategory()).isEqualTo("Seasonal");
+        assertThat(repriced.previousCategory()).isNull();
+        assertThat(productJdbcRepository.patch(-1L, ProductPatchRequest.builder().category("Clearance").build(), null,
+                LocalDateTime.now())).isEmpty();
+    }
+
+    @Test
+    void multiplyPrices_RowMovedToAnotherCategoryAfterSelect_IsNotRepriced() {
+        List<Long> ids = productJdbcRepository.findIdsAfter("Seasonal", null, 0, 10);
+        jdbcTemplate.update("UPDATE product SET category = 'Clearance' WHERE id = ?", ids.get(0));
+
+        Map<Long, ProductPrice> updated = productJdbcRepository.multiplyPrices(ids, "Seasonal", new BigDecimal("0.5"),
+                LocalDateTime.now());
+
+        assertThat(updated).containsOnlyKeys(ids.get(1), ids.get(2));
+        assertThat(updated.get(ids.get(1)).price()).isEqualByComparingTo("5.00");
+        assertThat(updated.get(ids.get(1)).version()).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject("SELECT price FROM product WHERE id = ?", BigDecimal.class, ids.get(0)))
+                .isEqualByComparingTo("10.00");
+    }
+}
@@ -0,0 +1,150 @@
+package com.ing.store_management.repository;
+
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.model.Product;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the old entity-based read paths (managed entities in a read-write transaction, mapped to DTOs
+ * afterwards) with the DTO projections in read-only transactions. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read-path-benchmark",
+        "app.search.index-dir=${java.io.tmpdir}/store-management/read-path-benchmark-index",
+        "logging.level.com.ing.store_management.service=WARN"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class ProductReadPathBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 5_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    private record Result(double microsPerOp, long bytesPerOp) {
+    }
+
+    @BeforeAll
+    void populate() {
+        jdbcTemplate.update("""
+                INSERT INTO product (name, description, price, quantity, category, created_at, updated_at)
+                SELECT 'Product ' || X, 'Description of product ' || X, MOD(X, 1000) + 1, MOD(X, 50),
+                       'Category ' || MOD(X, 40), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, 5000)
+                """);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void findById() {
+        compare("findById",
+                () -> readWrite.execute(status -> toDto(productRepository.findById(42L).orElseThrow())),
+                () -> readOnly.execute(status -> productRepository.findProductDtoById(42L).orElseThrow()));
+    }
+
+    @Test
+    void findAllPage() {
+        Pageable pageable = PageRequest.of(5, 50, Sort.by("name"));
+        compare("findAll page of 50",
+                () -> readWrite.execute(status -> productRepository.findAll(pageable).map(this::toDto)),
+                () -> readOnly.execute(status -> productRepository.findAllProductDtos(pageable)));
+    }
+
+    @Test
+    void findByCategory() {
+        compare("findByCategory (125 rows)",
+                () -> readWrite.execute(status -> entityManager
+                        .createQuery("SELECT p FROM Product p WHERE p.category = :category ORDER BY p.id", Product.class)
+                        .setParameter("category", "Category 7")
+                        .getResultList().stream().map(this::toDto).toList()),
+                () -> readOnly.execute(status -> productRepository
+                        .findProductDtosByCategory("Category 7", PageRequest.of(0, 125)).getContent()));
+    }
+
+    private void compare(String name, Supplier<Object> entityPath, Supplier<Object> projectionPath) {
+        Result entities = measure(entityPath);
+        Result projections = measure(projectionPath);
+
+        log.info("{}: entities {} us/op, {} B/op -> projections {} us/op, {} B/op ({}% fewer bytes)", name,
+                String.format("%.1f", entities.microsPerOp()), entities.bytesPerOp(),
+                String.format("%.1f", projections.microsPerOp()), projections.bytesPerOp(),
+                100 - projections.bytesPerOp() * 100 / entities.bytesPerOp());
+        assertThat(projections.bytesPerOp()).isLessThan(entities.bytesPerOp());
+    }
+
+    private Result measure(Supplier<Object> operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            consume(operation.get());
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long startBytes = THREADS.getThreadAllocatedBytes(threadId);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            consume(operation.get());
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - startBytes;
+
+        return new Result(elapsedNanos / 1_000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private static void consume(Object result) {
+        if (result == null || result instanceof List<?> list && list.isEmpty()) {
+            throw new IllegalStateException("Benchmark query returned nothing");
+        }
+    }
+
+    private ProductDto toDto(Product product) {
+        return ProductDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .category(product.getCategory())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
+                .build();
+    }
+}
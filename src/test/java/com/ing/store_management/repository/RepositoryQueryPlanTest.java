@@ -0,0 +1,234 @@
+package com.ing.store_management.repository;
+
+import com.ing.store_management.model.Product;
+import com.ing.store_management.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query against a populated schema and fails if H2 plans a full table or index scan
+ * for it. Statements are captured from Hibernate, so derived and scrolling queries are checked as generated.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans",
+        "app.search.index-dir=${java.io.tmpdir}/store-management/query-plan-index",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ing.store_management.repository.RepositoryQueryPlanTest$CapturingStatementInspector"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final Set<String> ALLOWED_SCANS = Set.of(
+            // Leading-wildcard LIKE cannot use a B-tree index; full-text search is served by the Lucene index instead
+            "countByNameContainingIgnoreCase",
+            "findProductDtosByNameContaining page",
+            // No predicate: the sort index is walked in order and H2 stops after offset + limit rows
+            "findAllProductDtos page sorted by name",
+            "findAllBy first window by price");
+
+    private static final Pattern UNCONDITIONAL_INDEX = Pattern.compile("/\\* PUBLIC\\.\\w+ \\*/");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @FunctionalInterface
+    interface RepositoryCall {
+        void run(ProductRepository products, UserRepository users);
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeAll
+    void populate() {
+        jdbcTemplate.update("""
+                INSERT INTO product (name, description, price, quantity, category, created_at, updated_at)
+                SELECT 'Product ' || X, 'Description ' || X, MOD(X, 1000) + 1, MOD(X, 50), 'Category ' || MOD(X, 40),
+                       DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00'),
+                       DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00')
+                FROM SYSTEM_RANGE(1, 20000)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO users (username, email, password, role, is_enabled, created_at)
+                SELECT 'user' || X, 'user' || X || '@example.com', 'secret',
+                       CASE MOD(X, 3) WHEN 0 THEN 'ADMIN' WHEN 1 THEN 'MANAGER' ELSE 'EMPLOYEE' END,
+                       MOD(X, 10) <> 0, CURRENT_TIMESTAMP
+                FROM SYSTEM_RANGE(1, 2000)
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO product_tombstone (product_id, deleted_at)
+                SELECT 100000 + X, DATEADD('SECOND', X, TIMESTAMP '2024-01-01 00:00:00')
+                FROM SYSTEM_RANGE(1, 5000)
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 1, 0);
+        return Stream.of(
+                query("findById", (products, users) -> products.findById(42L)),
+                query("existsById", (products, users) -> products.existsById(42L)),
+                query("findProductDtoById", (products, users) -> products.findProductDtoById(42L)),
+                query("findProductDtosByIdIn", (products, users) -> products.findProductDtosByIdIn(List.of(42L, 7L, 4242L))),
+                query("findProductDtosByCategory page", (products, users) ->
+                        products.findProductDtosByCategory("Category 7", PageRequest.of(2, 20))),
+                query("findVersionsByCategory page", (products, users) ->
+                        products.findVersionsByCategory("Category 7", PageRequest.of(2, 20))),
+                query("countByCategory", (products, users) -> products.countByCategory("Category 7")),
+                query("findByName", (products, users) -> products.findByName("Product 42")),
+                query("findByNameIgnoreCase", (products, users) -> products.findByNameIgnoreCase("PRODUCT 42")),
+                query("findProductDtosByNameContaining page", (products, users) ->
+                        products.findProductDtosByNameContaining("duct 4", PageRequest.of(0, 20))),
+                query("countByNameContainingIgnoreCase",
+                        (products, users) -> products.countByNameContainingIgnoreCase("duct 4")),
+                query("findAvailableProductDtos page", (products, users) ->
+                        products.findAvailableProductDtos(PageRequest.of(2, 20))),
+                query("findAvailableVersions page", (products, users) ->
+                        products.findAvailableVersions(PageRequest.of(2, 20))),
+                query("countByQuantityGreaterThan", (products, users) -> products.countByQuantityGreaterThan(0)),
+                query("findAllProductDtos page sorted by name", (products, users) ->
+                        products.findAllProductDtos(PageRequest.of(3, 20, Sort.by(Sort.Direction.DESC, "name")))),
+                query("findAllBy first window by price", (products, users) ->
+                        products.findAllBy(ScrollPosition.keyset(), Sort.by("price", "id"), Limit.of(21))),
+                query("findAllBy next window by price", (products, users) ->
+                        products.findAllBy(ScrollPosition.forward(Map.of("price", new BigDecimal("500.00"), "id", 499L)),
+                                Sort.by("price", "id"), Limit.of(21))),
+                query("findAllBy next window by createdAt desc", (products, users) ->
+                        products.findAllBy(ScrollPosition.forward(Map.of("createdAt", createdAt, "id", 3600L)),
+                                Sort.by(Sort.Direction.DESC, "createdAt", "id"), Limit.of(21))),
+                query("findAllBy next window by name", (products, users) ->
+                        products.findAllBy(ScrollPosition.forward(Map.of("name", "Product 500", "id", 500L)),
+                                Sort.by("name", "id"), Limit.of(21))),
+                query("findAllBy next window by quantity", (products, users) ->
+                        products.findAllBy(ScrollPosition.forward(Map.of("quantity", 10, "id", 10L)),
+                                Sort.by("quantity", "id"), Limit.of(21))),
+                query("findQuantityById", (products, users) -> products.findQuantityById(42L)),
+                query("findByUsername", (products, users) -> users.findByUsername("user42")),
+                query("findByEmail", (products, users) -> users.findByEmail("user42@example.com")),
+                query("findByRole", (products, users) -> users.findByRole(User.Role.MANAGER)),
+                query("findByEnabledTrue", (products, users) -> users.findByEnabledTrue()),
+                query("existsByUsername", (products, users) -> users.existsByUsername("user42")),
+                query("existsByEmail", (products, users) -> users.existsByEmail("user42@example.com")),
+                query("findSecurityStampByUsername", (products, users) -> users.findSecurityStampByUsername("user42"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexedQueries")
+    void repositoryQuery_DoesNotScanWholeTable(RepositoryCall call) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        call.run(productRepository, userRepository);
+
+        List<String> statements = List.copyOf(CapturingStatementInspector.STATEMENTS);
+        assertThat(statements).isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertThat(isFullScan(plan)).as("Query plan scans the whole table:%n%s", plan).isFalse();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("allowedScans")
+    void allowedScans_StillScan(RepositoryCall call) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        call.run(productRepository, userRepository);
+
+        // Guards the allowlist from going stale once such a query becomes indexable
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + CapturingStatementInspector.STATEMENTS.get(0), String.class);
+        assertThat(isFullScan(plan)).isTrue();
+    }
+
+    @Test
+    void changesFeedQuery_RangeScansProductsAndTombstones() {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 3, 0);
+        LocalDateTime upTo = LocalDateTime.of(2024, 1, 1, 4, 0);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + ProductJdbcRepository.CHANGES_AFTER, String.class,
+                since, since, 10800L, upTo, 101, since, since, 10800L, upTo, 101, 101);
+
+        assertThat(isFullScan(plan)).as("Query plan scans the whole table:%n%s", plan).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Sort.Direction.class)
+    void keysetWindows_ContinueAcrossTiedSortKeys(Sort.Direction direction) {
+        // 20 products share each price, so a window of 30 ends in the middle of a tie
+        Sort sort = Sort.by(direction, "price", "id");
+        Window<Product> first = productRepository.findAllBy(ScrollPosition.keyset(), sort, Limit.of(30));
+        Window<Product> next = productRepository.findAllBy(first.positionAt(first.size() - 1), sort, Limit.of(30));
+        Window<Product> both = productRepository.findAllBy(ScrollPosition.keyset(), sort, Limit.of(60));
+
+        assertThat(Stream.concat(first.stream(), next.stream()).map(Product::getId))
+                .containsExactlyElementsOf(both.map(Product::getId).getContent());
+    }
+
+    static Stream<Arguments> indexedQueries() {
+        return repositoryQueries().filter(arguments -> !isAllowedScan(arguments));
+    }
+
+    static Stream<Arguments> allowedScans() {
+        return repositoryQueries().filter(RepositoryQueryPlanTest::isAllowedScan);
+    }
+
+    private static Arguments query(String name, RepositoryCall call) {
+        return Arguments.of(Named.of(name, call));
+    }
+
+    private static boolean isAllowedScan(Arguments arguments) {
+        return ALLOWED_SCANS.contains(((Named<?>) arguments.get()[0]).getName());
+    }
+
+    /**
+     * H2 marks a scan either as {@code tableScan} or as an index without a condition. An unconditional index is
+     * still fine when it answers a count directly.
+     */
+    private static boolean isFullScan(String plan) {
+        if (plan.contains(".tableScan")) {
+            return true;
+        }
+        if (!UNCONDITIONAL_INDEX.matcher(plan).find()) {
+            return false;
+        }
+        return !plan.contains("/* direct lookup */");
+    }
+}
@@ -0,0 +1,98 @@
+package com.ing.store_management.search;
+
+import com.ing.store_management.dto.ProductDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of faceted queries over a million indexed products. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Slf4j
+class ProductFacetQueryBenchmarkTest {
+
+    private static final int PRODUCTS = 1_000_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 50;
+    private static final List<BigDecimal> PRICE_RANGES = List.of(new BigDecimal("25"), new BigDecimal("50"),
+            new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500"));
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeAll
+    void populate(@TempDir Path indexDir) throws Exception {
+        productSearchIndex = new ProductSearchIndex(indexDir, Duration.ofHours(1), Duration.ofHours(1));
+        productSearchIndex.rebuild(consumer -> {
+            for (long id = 1; id <= PRODUCTS; id++) {
+                consumer.accept(ProductDto.builder()
+                        .id(id)
+                        .name("Product " + id)
+                        .description("Description of product " + id)
+                        .price(BigDecimal.valueOf(id % 1000 + 1))
+                        .quantity((int) (id % 50))
+                        .category("Category " + id % 40)
+                        .build());
+            }
+        });
+    }
+
+    @AfterAll
+    void close() throws Exception {
+        productSearchIndex.close();
+    }
+
+    @Test
+    void facetedQueries() {
+        measure("no filters", query(null, Set.of(), null, null, false), PRODUCTS);
+        measure("available, price 10..500", query(null, Set.of(), "10", "500", true), -1);
+        measure("two categories, available", query(null, Set.of("Category 3", "Category 7"), null, null, true), -1);
+        measure("name prefix, category, price", query("product 12", Set.of("Category 12"), "5", "800", false), -1);
+    }
+
+    private Supplier<ProductSearchIndex.FacetedHits> query(String name, Set<String> categories, String minPrice,
+                                                          String maxPrice, boolean availableOnly) {
+        ProductSearchIndex.FacetQuery query = new ProductSearchIndex.FacetQuery(name, categories,
+                minPrice != null ? new BigDecimal(minPrice) : null, maxPrice != null ? new BigDecimal(maxPrice) : null,
+                availableOnly, PRICE_RANGES);
+        return () -> productSearchIndex.facetedSearch(query, 2, 20);
+    }
+
+    private void measure(String name, Supplier<ProductSearchIndex.FacetedHits> query, long expectedTotal) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            query.get();
+        }
+
+        long[] micros = new long[MEASURED_ITERATIONS];
+        ProductSearchIndex.FacetedHits hits = null;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            hits = query.get();
+            micros[i] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        }
+        Arrays.sort(micros);
+
+        log.info("{}: {} hits, {} categories, p50 {} ms, p99 {} ms", name, hits.totalHits(), hits.categoryCounts().size(),
+                micros[micros.length / 2] / 1000.0, micros[(int) (micros.length * 0.99)] / 1000.0);
+        assertThat(hits.ids()).hasSize(20);
+        if (expectedTotal >= 0) {
+            assertThat(hits.totalHits()).isEqualTo(expectedTotal);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.ing.store_management.search;
+
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.repository.ProductPrice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProductSearchIndexTest {
+    @TempDir
+    Path indexDir;
+
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        productSearchIndex = new ProductSearchIndex(indexDir, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        productSearchIndex.rebuild(consumer -> List.of(
+                product(1L, "Wireless Bluetooth Headphones", "Noise cancelling over-ear headphones", "Electronics"),
+                product(2L, "Desk Lamp", "LED lamp with wireless charging pad", "Home & Office"),
+                product(3L, "Gaming Mechanical Keyboard", "RGB keyboard", "Electronics")
+        ).forEach(consumer));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        productSearchIndex.close();
+    }
+
+    @Test
+    void search_RanksNameMatchesAboveDescriptionMatches() {
+        ProductSearchIndex.SearchHits hits = productSearchIndex.search("wireless", 0, 10);
+
+        assertThat(hits.ids()).containsExactly(1L, 2L);
+        assertThat(hits.totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void search_TreatsLastTermAsPrefix() {
+        assertThat(productSearchIndex.search("mechanical keyb", 0, 10).ids()).containsExactly(3L);
+        assertThat(productSearchIndex.search("electr", 0, 10).ids()).containsExactlyInAnyOrder(1L, 3L);
+    }
+
+    @Test
+    void search_Paginates() {
+        ProductSearchIndex.SearchHits secondPage = productSearchIndex.search("electronics", 1, 1);
+
+        assertThat(secondPage.ids()).hasSize(1);
+        assertThat(secondPage.totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void indexAndDelete_AreVisibleImmediately() {
+        productSearchIndex.index(product(4L, "Standing Desk", "Electric height adjustable", "Furniture"));
+        productSearchIndex.index(version(product(2L, "Floor Lamp", "Tall lamp", "Home & Office"), 1));
+        productSearchIndex.delete(1L);
+
+        assertThat(productSearchIndex.search("desk", 0, 10).ids()).containsExactly(4L);
+        assertThat(productSearchIndex.search("floor", 0, 10).ids()).containsExactly(2L);
+        assertThat(productSearchIndex.search("wireless", 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void search_BlankQuery_ReturnsNoHits() {
+        assertThat(productSearchIndex.search("  ", 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void facetedSearch_CountsEachFacetWithoutItsOwnFilter() {
+        productSearchIndex.index(product(4L, "Wireless Mouse", "Electronics", "19.99", 0));
+
+        ProductSearchIndex.FacetedHits hits = productSearchIndex.facetedSearch(facetQuery(null,
+                Set.of("Electronics"), new BigDecimal("15"), null, false), 0, 10);
+
+        assertThat(hits.ids()).containsExactly(4L);
+        assertThat(hits.totalHits()).isEqualTo(1);
+        // Products priced 10.00 fall outside the price filter, so only the mouse counts per category
+        assertThat(hits.categoryCounts()).containsExactly(Map.entry("Electronics", 1L));
+        // All three Electronics products count per price range, whatever the price filter
+        assertThat(hits.priceRangeCounts()).containsExactly(2L, 1L, 0L);
+    }
+
+    @Test
+    void facetedSearch_FiltersByNamePrefixAndStock() {
+        productSearchIndex.index(product(4L, "Wireless Mouse", "Electronics", "19.99", 0));
+
+        assertThat(productSearchIndex.facetedSearch(facetQuery("wirel", Set.of(), null, null, false), 0, 10).ids())
+                .containsExactly(1L, 4L);
+        assertThat(productSearchIndex.facetedSearch(facetQuery("wirel", Set.of(), null, null, true), 0, 10).ids())
+                .containsExactly(1L);
+    }
+
+    @Test
+    void facetedSearch_PaginatesInIdOrder() {
+        ProductSearchIndex.FacetedHits secondPage = productSearchIndex.facetedSearch(
+                facetQuery(null, Set.of(), null, null, false), 1, 2);
+
+        assertThat(secondPage.ids()).containsExactly(3L);
+        assertThat(secondPage.totalHits()).isEqualTo(3);
+    }
+
+    @Test
+    void updateQuantityAndPrices_AreVisibleAfterRefresh() {
+        productSearchIndex.updateQuantity(1L, 0, 1);
+        productSearchIndex.updatePrices(List.of(new ProductPrice(3L, new BigDecimal("30.00"), 1L)));
+        productSearchIndex.refreshIfStale();
+
+        ProductSearchIndex.FacetedHits hits = productSearchIndex.facetedSearch(
+                facetQuery(null, Set.of("Electronics"), new BigDecimal("20"), null, true), 0, 10);
+
+        assertThat(hits.ids()).containsExactly(3L);
+        assertThat(productSearchIndex.search("wireless", 0, 10).ids()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void rebuild_DropsProductsMissingFromSource() {
+        productSearchIndex.rebuild(consumer -> List.of(
+                product(1L, "Wireless Bluetooth Headphones", "Noise cancelling over-ear headphones", "Electronics"),
+                product(3L, "Gaming Mechanical Keyboard", "RGB keyboard", "Electronics")
+        ).forEach(consumer));
+
+        assertThat(productSearchIndex.search("lamp", 0, 10).ids()).isEmpty();
+        assertThat(productSearchIndex.search("electronics", 0, 10).totalHits()).isEqualTo(2);
+        assertThat(productSearchIndex.documentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuild_LiveWritesDuringRebuild_WinOverWhatTheRebuildRead() {
+        productSearchIndex.rebuild(consumer -> {
+            // Changed and deleted after the rebuild read them, but before it wrote them
+            productSearchIndex.index(version(product(1L, "Wired Headphones", "Studio headphones", "Electronics"), 1));
+            productSearchIndex.delete(2L);
+            productSearchIndex.updateQuantity(3L, 0, 1);
+            List.of(
+                    product(1L, "Wireless Bluetooth Headphones", "Noise cancelling over-ear headphones", "Electronics"),
+                    product(2L, "Desk Lamp", "LED lamp with wireless charging pad", "Home & Office"),
+                    product(3L, "Gaming Mechanical Keyboard", "RGB keyboard", "Electronics")
+            ).forEach(consumer);
+        });
+        productSearchIndex.refreshIfStale();
+
+        assertThat(productSearchIndex.search("wireless", 0, 10).ids()).isEmpty();
+        assertThat(productSearchIndex.search("wired", 0, 10).ids()).containsExactly(1L);
+        assertThat(productSearchIndex.facetedSearch(facetQuery(null, Set.of(), null, null, true), 0, 10).ids())
+                .containsExactly(1L);
+        assertThat(productSearchIndex.documentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuild_FailingSource_KeepsPreviousDocuments() {
+        assertThatThrownBy(() -> productSearchIndex.rebuild(consumer -> {
+            consumer.accept(product(4L, "Standing Desk", "Electric height adjustable", "Furniture"));
+            throw new IllegalStateException("Database unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(productSearchIndex.search("wireless", 0, 10).ids()).containsExactly(1L, 2L);
+        assertThat(productSearchIndex.openedCommitAt()).isEmpty();
+    }
+
+    @Test
+    void openedCommitAt_PresentOnlyAfterACompletedRebuild() throws Exception {
+        productSearchIndex.close();
+        productSearchIndex = new ProductSearchIndex(indexDir, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        assertThat(productSearchIndex.openedCommitAt()).isPresent();
+        assertThat(productSearchIndex.documentCount()).isEqualTo(3);
+
+        productSearchIndex.close();
+        productSearchIndex = new ProductSearchIndex(indexDir.resolve("empty"), Duration.ofMinutes(1),
+                Duration.ofMinutes(1));
+
+        assertThat(productSearchIndex.openedCommitAt()).isEmpty();
+    }
+
+    @Test
+    void writesArrivingOutOfVersionOrder_KeepTheNewestVersion() {
+        // Two updates committed as v1 then v2 but reach the index as v2 then v1
+        productSearchIndex.index(version(product(1L, "Wired Headphones", "Studio headphones", "Electronics"), 2));
+        productSearchIndex.index(version(product(1L, "Wireless Headphones", "Old name", "Electronics"), 1));
+        // Two stock decrements committed as v3 (1 left) then v4 (none left), applied in reverse
+        productSearchIndex.updateQuantity(1L, 0, 4);
+        productSearchIndex.updateQuantity(1L, 1, 3);
+        productSearchIndex.index(product(5L, "Wireless Charger", "Charging pad", "Electronics"));
+        productSearchIndex.delete(5L);
+        productSearchIndex.index(version(product(5L, "Wireless Charger", "Charging pad", "Electronics"), 1));
+        productSearchIndex.refreshIfStale();
+
+        assertThat(productSearchIndex.search("wired", 0, 10).ids()).containsExactly(1L);
+        assertThat(productSearchIndex.search("wireless", 0, 10).ids()).containsExactly(2L);
+        assertThat(productSearchIndex.facetedSearch(facetQuery("headphones", Set.of(), null, null, true), 0, 10)
+                .ids()).isEmpty();
+    }
+
+    @Test
+    void writeOlderThanIndexedVersion_IsSkippedAfterReopen() throws Exception {
+        productSearchIndex.index(version(product(1L, "Wired Headphones", "Studio headphones", "Electronics"), 2));
+        productSearchIndex.close();
+        productSearchIndex = new ProductSearchIndex(indexDir, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+        productSearchIndex.index(version(product(1L, "Wireless Headphones", "Old name", "Electronics"), 1));
+
+        assertThat(productSearchIndex.search("wired", 0, 10).ids()).containsExactly(1L);
+    }
+
+    private static ProductDto version(ProductDto product, long version) {
+        product.setVersion(version);
+        return product;
+    }
+
+    private ProductSearchIndex.FacetQuery facetQuery(String name, Set<String> categories, BigDecimal minPrice,
+                                                     BigDecimal maxPrice, boolean availableOnly) {
+        return new ProductSearchIndex.FacetQuery(name, categories, minPrice, maxPrice, availableOnly,
+                List.of(new BigDecimal("15"), new BigDecimal("50")));
+    }
+
+    private ProductDto product(Long id, String name, String description, String category) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(BigDecimal.TEN)
+                .quantity(1)
+                .category(category)
+                .build();
+    }
+
+    private ProductDto product(Long id, String name, String category, String price, int quantity) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .price(new BigDecimal(price))
+                .quantity(quantity)
+                .category(category)
+                .build();
+    }
+}
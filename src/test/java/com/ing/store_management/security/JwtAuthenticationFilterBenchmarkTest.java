@@ -0,0 +1,136 @@
+package com.ing.store_management.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request cost of authenticating a bearer token: the previous filter, which verified the token once for
+ * each claim it read with a freshly built key and parser, against the current single verification with a
+ * verified-token cache. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+class JwtAuthenticationFilterBenchmarkTest {
+
+    private static final String SECRET = "benchmarkSecretKey1234567890123456789012345678901234567890123456";
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 3600, 10_000);
+    private final SecurityStampRegistry securityStamps = new SecurityStampRegistry(null, Duration.ofSeconds(5));
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, securityStamps);
+    private final String token = jwtUtil.generateToken("benchmark", "EMPLOYEE", 0);
+    private final FilterChain chain = (request, response) -> {
+    };
+
+    private record Result(double microsPerOp, long bytesPerOp) {
+    }
+
+    @BeforeEach
+    void registerStamp() {
+        securityStamps.update("benchmark", 0);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatedRequest() {
+        Result before = measure(() -> {
+            MockHttpServletRequest request = request();
+            legacyAuthenticate(request);
+        });
+        Result after = measure(() -> {
+            MockHttpServletRequest request = request();
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+        });
+
+        log.info("Authenticated request: {} us/op, {} B/op -> {} us/op, {} B/op ({}x faster)",
+                String.format("%.2f", before.microsPerOp()), before.bytesPerOp(),
+                String.format("%.2f", after.microsPerOp()), after.bytesPerOp(),
+                String.format("%.1f", before.microsPerOp() / after.microsPerOp()));
+        assertThat(after.microsPerOp()).isLessThan(before.microsPerOp());
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/42");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    // The filter as it was: validateToken (two parses), then one parse each for the username and the role
+    private void legacyAuthenticate(MockHttpServletRequest request) {
+        String bearer = request.getHeader("Authorization").substring(7);
+        legacyClaims(bearer);
+        if (legacyClaims(bearer).getExpiration().before(new Date())) {
+            throw new IllegalStateException("Benchmark token expired");
+        }
+        String username = legacyClaims(bearer).getSubject();
+        String role = legacyClaims(bearer).get("role", String.class);
+
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(username, null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private Result measure(ThrowingRunnable operation) {
+        try {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                operation.run();
+            }
+
+            long threadId = Thread.currentThread().getId();
+            long startBytes = THREADS.getThreadAllocatedBytes(threadId);
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                operation.run();
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long allocated = THREADS.getThreadAllocatedBytes(threadId) - startBytes;
+
+            assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("benchmark");
+            return new Result(elapsedNanos / 1_000.0 / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
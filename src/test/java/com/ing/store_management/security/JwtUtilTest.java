@@ -0,0 +1,50 @@
+package com.ing.store_management.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtUtilTest {
+
+    private static final String SECRET = "testSecretKey12345678901234567890123456789012345678901234567890";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 3600, 100);
+
+    @Test
+    void verify_ValidToken_ReturnsPrincipalAndCachesIt() {
+        String token = jwtUtil.generateToken("testuser", "MANAGER", 4);
+
+        JwtPrincipal principal = jwtUtil.verify(token).orElseThrow();
+
+        assertThat(principal.username()).isEqualTo("testuser");
+        assertThat(principal.role()).isEqualTo("MANAGER");
+        assertThat(principal.securityStamp()).isEqualTo(4);
+        assertThat(principal.expiresAt()).isAfter(Instant.now());
+        assertThat(jwtUtil.verify(token)).containsSame(principal);
+    }
+
+    @Test
+    void verify_TamperedToken_ReturnsEmpty() {
+        String token = jwtUtil.generateToken("testuser", "EMPLOYEE", 0);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(jwtUtil.verify(tampered)).isEmpty();
+        assertThat(jwtUtil.verify("not-a-jwt")).isEmpty();
+    }
+
+    @Test
+    void verify_TokenFromOtherKey_ReturnsEmpty() {
+        JwtUtil other = new JwtUtil(SECRET.replace('1', '9'), 3600, 100);
+
+        assertThat(jwtUtil.verify(other.generateToken("testuser", "ADMIN", 0))).isEmpty();
+    }
+
+    @Test
+    void verify_ExpiredToken_ReturnsEmpty() {
+        JwtUtil expiring = new JwtUtil(SECRET, -1, 100);
+
+        assertThat(expiring.verify(expiring.generateToken("testuser", "ADMIN", 0))).isEmpty();
+    }
+}
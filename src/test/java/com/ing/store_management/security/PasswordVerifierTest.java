@@ -0,0 +1,71 @@
+package com.ing.store_management.security;
+
+import com.ing.store_management.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PasswordVerifierTest {
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    // Matches when raw and encoded are equal; the first check blocks until released
+    private final PasswordEncoder encoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            hashing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    };
+
+    private final PasswordVerifier verifier = new PasswordVerifier(encoder, 1, 1, Duration.ofSeconds(2));
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        verifier.close();
+    }
+
+    @Test
+    void matches_RunsOffTheCallingThread() throws Exception {
+        CompletableFuture<Boolean> match = verifier.matches("secret", "secret");
+        CompletableFuture<Boolean> mismatch = verifier.matches("secret", "other");
+
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(match).isNotDone();
+
+        release.countDown();
+        assertThat(match.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(mismatch.get(5, TimeUnit.SECONDS)).isFalse();
+    }
+
+    @Test
+    void matches_QueueFull_RejectsImmediately() throws Exception {
+        verifier.matches("secret", "secret");
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        verifier.matches("secret", "secret");
+
+        assertThatThrownBy(() -> verifier.matches("secret", "secret"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasFieldOrPropertyWithValue("retryAfter", Duration.ofSeconds(2));
+    }
+}
@@ -0,0 +1,104 @@
+package com.ing.store_management.security;
+
+import com.ing.store_management.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class SecurityStampRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SecurityStampRegistry securityStamps;
+
+    @BeforeEach
+    void setUp() {
+        securityStamps = new SecurityStampRegistry(userRepository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void isCurrent_LoadsStampOnceThenAnswersFromMemory() {
+        when(userRepository.findSecurityStampByUsername("testuser")).thenReturn(Optional.of(2));
+
+        assertThat(securityStamps.isCurrent(principal(2))).isTrue();
+        assertThat(securityStamps.isCurrent(principal(2))).isTrue();
+        assertThat(securityStamps.isCurrent(principal(1))).isFalse();
+
+        verify(userRepository, times(1)).findSecurityStampByUsername("testuser");
+    }
+
+    @Test
+    void update_RejectsTokensIssuedBeforeTheChange() {
+        securityStamps.update("testuser", 0);
+        assertThat(securityStamps.isCurrent(principal(0))).isTrue();
+
+        securityStamps.update("testuser", 1);
+
+        assertThat(securityStamps.isCurrent(principal(0))).isFalse();
+        assertThat(securityStamps.isCurrent(principal(1))).isTrue();
+        verify(userRepository, never()).findSecurityStampByUsername(anyString());
+    }
+
+    @Test
+    void update_NeverMovesBackwards() {
+        securityStamps.update("testuser", 3);
+        securityStamps.update("testuser", 2);
+
+        assertThat(securityStamps.isCurrent(principal(3))).isTrue();
+    }
+
+    @Test
+    void isCurrent_UnknownUserOrUnstampedToken_ReturnsFalse() {
+        when(userRepository.findSecurityStampByUsername("testuser")).thenReturn(Optional.empty());
+
+        assertThat(securityStamps.isCurrent(principal(0))).isFalse();
+
+        securityStamps.update("testuser", 0);
+        assertThat(securityStamps.isCurrent(principal(JwtPrincipal.NO_STAMP))).isFalse();
+    }
+
+    @Test
+    void isCurrent_TokenNewerThanCachedStamp_ReloadsOnce() {
+        // Another instance changed the user's role and issued a token with the new stamp
+        securityStamps.update("testuser", 1);
+        when(userRepository.findSecurityStampByUsername("testuser")).thenReturn(Optional.of(2));
+
+        assertThat(securityStamps.isCurrent(principal(2))).isTrue();
+        assertThat(securityStamps.isCurrent(principal(1))).isFalse();
+        assertThat(securityStamps.isCurrent(principal(2))).isTrue();
+
+        verify(userRepository, times(1)).findSecurityStampByUsername("testuser");
+    }
+
+    @Test
+    void isCurrent_UnknownUser_IsRememberedUntilCreated() {
+        when(userRepository.findSecurityStampByUsername("testuser")).thenReturn(Optional.empty());
+
+        assertThat(securityStamps.isCurrent(principal(0))).isFalse();
+        assertThat(securityStamps.isCurrent(principal(0))).isFalse();
+        verify(userRepository, times(1)).findSecurityStampByUsername("testuser");
+
+        securityStamps.update("testuser", 0);
+
+        assertThat(securityStamps.isCurrent(principal(0))).isTrue();
+    }
+
+    private static JwtPrincipal principal(int stamp) {
+        return new JwtPrincipal("testuser", "EMPLOYEE", stamp, Instant.now().plusSeconds(60));
+    }
+}
@@ -3,21 +3,29 @@ package com.ing.store_management.service;
 import com.ing.store_management.dto.CreateUserRequest;
 import com.ing.store_management.dto.LoginRequest;
 import com.ing.store_management.dto.LoginResponse;
+import com.ing.store_management.dto.RefreshTokenRequest;
 import com.ing.store_management.dto.UserDto;
 import com.ing.store_management.exception.AccountDisabledException;
 import com.ing.store_management.exception.InvalidCredentialsException;
+import com.ing.store_management.exception.TooManyRequestsException;
 import com.ing.store_management.model.User;
+import com.ing.store_management.repository.RefreshTokenRecord;
 import com.ing.store_management.repository.UserRepository;
 import com.ing.store_management.security.JwtUtil;
+import com.ing.store_management.security.PasswordVerifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,11 +41,14 @@ public class AuthServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordVerifier passwordVerifier;
 
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -105,13 +116,17 @@ public class AuthServiceTest {
     @Test
     void login_Success() {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
-        when(jwtUtil.generateToken("testuser", "EMPLOYEE")).thenReturn("jwt-token");
+        when(passwordVerifier.matches("password123", "encodedPassword")).thenReturn(CompletableFuture.completedFuture(true));
+        when(jwtUtil.generateToken("testuser", "EMPLOYEE", 0)).thenReturn("jwt-token");
+        when(jwtUtil.getExpirationSeconds()).thenReturn(900L);
+        when(refreshTokenService.issue(1L)).thenReturn("refresh-token");
 
-        LoginResponse result = authService.login(loginRequest);
+        LoginResponse result = authService.login(loginRequest).join();
 
         assertThat(result).isNotNull();
         assertThat(result.getToken()).isEqualTo("jwt-token");
+        assertThat(result.getExpiresIn()).isEqualTo(900L);
+        assertThat(result.getRefreshToken()).isEqualTo("refresh-token");
         assertThat(result.getUsername()).isEqualTo("testuser");
         assertThat(result.getRole()).isEqualTo(User.Role.EMPLOYEE);
         assertThat(result.getMessage()).isEqualTo("Login successful");
@@ -125,8 +140,8 @@ public class AuthServiceTest {
                 .isInstanceOf(InvalidCredentialsException.class)
                 .hasMessage("Invalid username or password");
 
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
-        verify(jwtUtil, never()).generateToken(anyString(), anyString());
+        verify(passwordVerifier, never()).matches(anyString(), anyString());
+        verify(jwtUtil, never()).generateToken(anyString(), anyString(), anyInt());
     }
 
     @Test
@@ -138,19 +153,51 @@ public class AuthServiceTest {
                 .isInstanceOf(AccountDisabledException.class)
                 .hasMessage("User account 'testuser' is disabled");
 
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
-        verify(jwtUtil, never()).generateToken(anyString(), anyString());
+        verify(passwordVerifier, never()).matches(anyString(), anyString());
+        verify(jwtUtil, never()).generateToken(anyString(), anyString(), anyInt());
     }
 
     @Test
     void login_InvalidPassword_ThrowsException() {
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(false);
+        when(passwordVerifier.matches("password123", "encodedPassword")).thenReturn(CompletableFuture.completedFuture(false));
 
-        assertThatThrownBy(() -> authService.login(loginRequest))
+        assertThatThrownBy(() -> authService.login(loginRequest).join())
+                .isInstanceOf(CompletionException.class)
+                .cause()
                 .isInstanceOf(InvalidCredentialsException.class)
                 .hasMessage("Invalid username or password");
 
-        verify(jwtUtil, never()).generateToken(anyString(), anyString());
+        verify(jwtUtil, never()).generateToken(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void login_PasswordQueueFull_ThrowsException() {
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(user));
+        when(passwordVerifier.matches("password123", "encodedPassword"))
+                .thenThrow(new TooManyRequestsException("Too many login attempts in progress, retry shortly",
+                        Duration.ofSeconds(1)));
+
+        assertThatThrownBy(() -> authService.login(loginRequest))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        verify(jwtUtil, never()).generateToken(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void refresh_RotatesTokenWithoutPasswordCheck() {
+        RefreshTokenRecord previous = new RefreshTokenRecord(7L, UUID.randomUUID(), 1L, "testuser", "MANAGER", 3, true,
+                LocalDateTime.now().plusDays(1), null, null);
+        when(refreshTokenService.rotate("old-refresh")).thenReturn(new RefreshTokenService.Rotation(previous,
+                "new-refresh"));
+        when(jwtUtil.generateToken("testuser", "MANAGER", 3)).thenReturn("jwt-token");
+
+        LoginResponse result = authService.refresh(RefreshTokenRequest.builder().refreshToken("old-refresh").build());
+
+        assertThat(result.getToken()).isEqualTo("jwt-token");
+        assertThat(result.getRefreshToken()).isEqualTo("new-refresh");
+        assertThat(result.getRole()).isEqualTo(User.Role.MANAGER);
+        verify(passwordVerifier, never()).matches(anyString(), anyString());
+        verify(userRepository, never()).findByUsername(anyString());
     }
 }
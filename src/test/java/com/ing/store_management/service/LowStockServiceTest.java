@@ -0,0 +1,135 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.alert.LowStockAlertListener;
+import com.ing.store_management.dto.LowStockAlertDto;
+import com.ing.store_management.dto.LowStockThresholdDto;
+import com.ing.store_management.dto.LowStockThresholdRequest;
+import com.ing.store_management.dto.ProductChangeEvent;
+import com.ing.store_management.dto.StockLevelsChangedEvent;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.repository.LowStockJdbcRepository;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import com.ing.store_management.repository.ProductStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockServiceTest {
+
+    @Mock
+    private LowStockJdbcRepository lowStockRepository;
+
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private LowStockAlertListener listener;
+
+    private LowStockService lowStockService;
+
+    @BeforeEach
+    void setUp() {
+        // Runs evaluation on the calling thread
+        lowStockService = new LowStockService(lowStockRepository, productJdbcRepository, List.of(listener), 5, 5,
+                Runnable::run);
+    }
+
+    @Test
+    void stockHoveringAroundThreshold_RaisesOneAlertAndClearsAtResetLevel() {
+        when(lowStockRepository.insertAlert(any(LowStockAlertDto.class))).thenReturn(11L);
+
+        lowStockService.onProductChange(ProductChangeEvent.stockChanged(1L, "Electronics", 1L, 5));
+        lowStockService.onProductChange(ProductChangeEvent.stockChanged(1L, "Electronics", 2L, 6));
+        lowStockService.onProductChange(ProductChangeEvent.stockChanged(1L, "Electronics", 3L, 4));
+        lowStockService.onProductChange(ProductChangeEvent.stockChanged(1L, "Electronics", 4L, 9));
+
+        verify(lowStockRepository, times(1)).insertAlert(any(LowStockAlertDto.class));
+        verify(listener, times(1)).alertRaised(any(LowStockAlertDto.class));
+        verify(listener, never()).alertCleared(any(LowStockAlertDto.class));
+        assertThat(lowStockService.findOpenAlerts(null)).extracting(LowStockAlertDto::getId).containsExactly(11L);
+
+        lowStockService.onProductChange(ProductChangeEvent.stockChanged(1L, "Electronics", 5L, 10));
+
+        verify(lowStockRepository).clearAlert(eq(11L), any(LocalDateTime.class), eq(10));
+        ArgumentCaptor<LowStockAlertDto> cleared = ArgumentCaptor.forClass(LowStockAlertDto.class);
+        verify(listener).alertCleared(cleared.capture());
+        assertThat(cleared.getValue().getClearedQuantity()).isEqualTo(10);
+        assertThat(lowStockService.findOpenAlerts(null)).isEmpty();
+    }
+
+    @Test
+    void staleStockChange_IsIgnored() {
+        when(lowStockRepository.insertAlert(any(LowStockAlertDto.class))).thenReturn(11L);
+
+        lowStockService.onProductChange(ProductChangeEvent.stockChanged(1L, "Electronics", 3L, 2));
+        lowStockService.onProductChange(ProductChangeEvent.stockChanged(1L, "Electronics", 2L, 50));
+
+        verify(lowStockRepository, never()).clearAlert(anyLong(), any(), any());
+        assertThat(lowStockService.findOpenAlerts("Electronics")).hasSize(1);
+    }
+
+    @Test
+    void productThreshold_OverridesCategoryAndDefault() {
+        when(productJdbcRepository.findStock(1L)).thenReturn(Optional.of(new ProductStock(1L, 40, "Electronics", 1L)));
+        when(productJdbcRepository.findStockAtMost("Electronics", 100)).thenReturn(List.of());
+        when(lowStockRepository.insertAlert(any(LowStockAlertDto.class))).thenReturn(11L);
+
+        lowStockService.setCategoryThreshold("Electronics", LowStockThresholdRequest.builder().lowLevel(100).build());
+        LowStockThresholdDto threshold = lowStockService.setProductThreshold(1L,
+                LowStockThresholdRequest.builder().lowLevel(50).resetLevel(80).build());
+
+        assertThat(threshold.getResetLevel()).isEqualTo(80);
+        ArgumentCaptor<LowStockAlertDto> raised = ArgumentCaptor.forClass(LowStockAlertDto.class);
+        verify(listener).alertRaised(raised.capture());
+        assertThat(raised.getValue().getProductId()).isEqualTo(1L);
+        assertThat(raised.getValue().getLowLevel()).isEqualTo(50);
+    }
+
+    @Test
+    void importedAndDeletedProducts_AreEvaluated() {
+        when(lowStockRepository.insertAlert(any(LowStockAlertDto.class))).thenReturn(11L, 12L);
+
+        lowStockService.onStockLevelsChanged(StockLevelsChangedEvent.changed(List.of(
+                new ProductStock(1L, 0, "Books", 0L),
+                new ProductStock(2L, 30, "Books", 0L),
+                new ProductStock(3L, 3, "Books", 0L))));
+        assertThat(lowStockService.findOpenAlerts("Books")).extracting(LowStockAlertDto::getProductId)
+                .containsExactly(1L, 3L);
+
+        lowStockService.onStockLevelsChanged(StockLevelsChangedEvent.deleted(List.of(1L)));
+
+        verify(lowStockRepository).clearAlert(eq(11L), any(LocalDateTime.class), isNull());
+        assertThat(lowStockService.findOpenAlerts("Books")).extracting(LowStockAlertDto::getProductId)
+                .containsExactly(3L);
+    }
+
+    @Test
+    void resetLevelNotAboveLowLevel_ThrowsException() {
+        assertThatThrownBy(() -> lowStockService.setCategoryThreshold("Books",
+                LowStockThresholdRequest.builder().lowLevel(10).resetLevel(10).build()))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Reset level must be greater than the low level");
+
+        verify(lowStockRepository, never()).saveCategoryThreshold(any(), anyInt(), anyInt(), any());
+    }
+}
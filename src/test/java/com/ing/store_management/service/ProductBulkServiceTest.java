@@ -0,0 +1,151 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.cache.ProductCache;
+import com.ing.store_management.cache.ProductResponseCache;
+import com.ing.store_management.dto.BulkDeleteRequest;
+import com.ing.store_management.dto.BulkOperationReport;
+import com.ing.store_management.dto.BulkPriceChangeRequest;
+import com.ing.store_management.dto.ProductChangeEvent;
+import com.ing.store_management.dto.StockLevelsChangedEvent;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import com.ing.store_management.repository.ProductPrice;
+import com.ing.store_management.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductBulkServiceTest {
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private ProductResponseCache productResponseCache;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductBulkService productBulkService;
+
+    @BeforeEach
+    void setUp() {
+        productBulkService = new ProductBulkService(productJdbcRepository, productCache, productResponseCache,
+                productSearchIndex, eventPublisher, 2);
+    }
+
+    @Test
+    void deleteProducts_ByIds_DeletesInChunksAndReportsMissingIds() {
+        when(productJdbcRepository.deleteByIds(eq(List.of(1L, 2L)), any(LocalDateTime.class))).thenReturn(List.of(1L, 2L));
+        when(productJdbcRepository.deleteByIds(eq(List.of(3L)), any(LocalDateTime.class))).thenReturn(List.of());
+
+        BulkOperationReport report = productBulkService.deleteProducts(
+                BulkDeleteRequest.builder().ids(List.of(1L, 2L, 3L, 2L)).build());
+
+        assertThat(report.getMatched()).isEqualTo(3);
+        assertThat(report.getAffected()).isEqualTo(2);
+        assertThat(report.getChunks()).isEqualTo(2);
+        assertThat(report.getMissingIds()).containsExactly(3L);
+        verify(productCache).invalidateAll(List.of(1L, 2L));
+        verify(productResponseCache).invalidateAll(List.of(1L, 2L));
+        verify(productSearchIndex).delete(List.of(1L, 2L));
+    }
+
+    @Test
+    void deleteProducts_ByFilter_WalksMatchingIdsInChunks() {
+        when(productJdbcRepository.countMatching("Seasonal", 0)).thenReturn(3L);
+        when(productJdbcRepository.findIdsAfter("Seasonal", 0, 0, 2)).thenReturn(List.of(4L, 7L));
+        when(productJdbcRepository.findIdsAfter("Seasonal", 0, 7, 2)).thenReturn(List.of(9L));
+        when(productJdbcRepository.findIdsAfter("Seasonal", 0, 9, 2)).thenReturn(List.of());
+        when(productJdbcRepository.deleteMatching(eq(List.of(4L, 7L)), eq("Seasonal"), eq(0), any(LocalDateTime.class))).thenReturn(List.of(4L, 7L));
+        when(productJdbcRepository.deleteMatching(eq(List.of(9L)), eq("Seasonal"), eq(0), any(LocalDateTime.class))).thenReturn(List.of(9L));
+
+        BulkOperationReport report = productBulkService.deleteProducts(
+                BulkDeleteRequest.builder().category("Seasonal").maxQuantity(0).build());
+
+        assertThat(report.getAffected()).isEqualTo(3);
+        assertThat(report.getChunks()).isEqualTo(2);
+        assertThat(report.getMissingIds()).isNull();
+        verify(productSearchIndex).delete(List.of(9L));
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).filteredOn(StockLevelsChangedEvent.class::isInstance)
+                .map(event -> ((StockLevelsChangedEvent) event).getDeletedIds())
+                .containsExactly(List.of(4L, 7L), List.of(9L));
+
+        ProductChangeEvent change = (ProductChangeEvent) events.getValue();
+        assertThat(change.getType()).isEqualTo(ProductChangeEvent.Type.BULK_CHANGED);
+        assertThat(change.getCategory()).isEqualTo("Seasonal");
+        assertThat(change.getAffected()).isEqualTo(3);
+    }
+
+    @Test
+    void deleteProducts_IdsAndFilter_ThrowsException() {
+        BulkDeleteRequest request = BulkDeleteRequest.builder().ids(List.of(1L)).category("Seasonal").build();
+
+        assertThatThrownBy(() -> productBulkService.deleteProducts(request))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verify(productJdbcRepository, never()).deleteByIds(any(), any());
+        verify(productJdbcRepository, never()).deleteMatching(any(), any(), any(), any());
+    }
+
+    @Test
+    void changePrices_Percentage_MultipliesAndCountsSkippedRows() {
+        when(productJdbcRepository.countMatching("Electronics", null)).thenReturn(2L);
+        when(productJdbcRepository.findIdsAfter("Electronics", null, 0, 2)).thenReturn(List.of(1L, 2L));
+        when(productJdbcRepository.findIdsAfter("Electronics", null, 2, 2)).thenReturn(List.of());
+        when(productJdbcRepository.multiplyPrices(eq(List.of(1L, 2L)), eq("Electronics"), eq(new BigDecimal("0.8500")), any(LocalDateTime.class)))
+                .thenReturn(Map.of(1L, new ProductPrice(1L, new BigDecimal("8.50"), 3L)));
+
+        BulkOperationReport report = productBulkService.changePrices(BulkPriceChangeRequest.builder()
+                .category("Electronics").percentage(new BigDecimal("-15.00")).build());
+
+        assertThat(report.getAffected()).isEqualTo(1);
+        assertThat(report.getSkipped()).isEqualTo(1);
+        verify(productCache).invalidateAll(Set.of(1L));
+        verify(productSearchIndex).updatePrices(argThat(prices ->
+                List.copyOf(prices).equals(List.of(new ProductPrice(1L, new BigDecimal("8.50"), 3L)))));
+        verify(productSearchIndex, never()).delete(any(List.class));
+    }
+
+    @Test
+    void changePrices_PercentageAndAmount_ThrowsException() {
+        BulkPriceChangeRequest request = BulkPriceChangeRequest.builder()
+                .category("Electronics").percentage(BigDecimal.TEN).amount(BigDecimal.ONE).build();
+
+        assertThatThrownBy(() -> productBulkService.changePrices(request))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verify(productJdbcRepository, never()).findIdsAfter(any(), any(), anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,127 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.dto.CursorPage;
+import com.ing.store_management.dto.ProductChange;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.exception.ChangeTokenExpiredException;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import com.ing.store_management.util.ProductChangeToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductChangeFeedServiceTest {
+
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    private ProductChangeFeedService productChangeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        productChangeFeedService = new ProductChangeFeedService(productJdbcRepository, Duration.ofSeconds(5),
+                Duration.ofDays(30), Duration.ofHours(1), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productChangeFeedService.close();
+    }
+
+    @Test
+    void findChangesSince_FullPage_ContinuesFromLastChange() {
+        LocalDateTime changedAt = LocalDateTime.now().minusHours(1);
+        when(productJdbcRepository.findChangesAfter(any(LocalDateTime.class), eq(0L), any(LocalDateTime.class), eq(3)))
+                .thenReturn(List.of(updated(4L, changedAt), deleted(7L, changedAt), updated(9L, changedAt.plusSeconds(1))));
+
+        CursorPage<ProductChange> page = productChangeFeedService.findChangesSince(null, 2);
+
+        assertThat(page.getContent()).extracting(ProductChange::getProductId).containsExactly(4L, 7L);
+        assertThat(page.getContent().get(1).isDeleted()).isTrue();
+        assertThat(page.isHasNext()).isTrue();
+
+        ProductChangeToken next = ProductChangeToken.decode(page.getNextCursor());
+        assertThat(next.changedAt()).isEqualTo(changedAt);
+        assertThat(next.id()).isEqualTo(7L);
+    }
+
+    @Test
+    void findChangesSince_LastPage_AdvancesTokenToSettleHorizon() {
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        String token = new ProductChangeToken(since, 7L).encode();
+        when(productJdbcRepository.findChangesAfter(eq(since), eq(7L), any(LocalDateTime.class), eq(3)))
+                .thenReturn(List.of(updated(9L, since.plusSeconds(1))));
+
+        CursorPage<ProductChange> page = productChangeFeedService.findChangesSince(token, 2);
+
+        assertThat(page.getSize()).isEqualTo(1);
+        assertThat(page.isHasNext()).isFalse();
+
+        ArgumentCaptor<LocalDateTime> upTo = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(productJdbcRepository).findChangesAfter(eq(since), eq(7L), upTo.capture(), eq(3));
+        assertThat(upTo.getValue()).isBefore(LocalDateTime.now().minusSeconds(4));
+
+        ProductChangeToken next = ProductChangeToken.decode(page.getNextCursor());
+        assertThat(next.changedAt()).isEqualTo(upTo.getValue());
+        assertThat(next.id()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void findChangesSince_TokenOlderThanRetention_RequiresResync() {
+        String token = new ProductChangeToken(LocalDateTime.now().minusDays(31), 1L).encode();
+
+        assertThatThrownBy(() -> productChangeFeedService.findChangesSince(token, 2))
+                .isInstanceOf(ChangeTokenExpiredException.class);
+
+        verifyNoInteractions(productJdbcRepository);
+    }
+
+    @Test
+    void findChangesSince_InvalidTokenOrSize_ThrowsException() {
+        assertThatThrownBy(() -> productChangeFeedService.findChangesSince("not-a-token", 2))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> productChangeFeedService.findChangesSince(null, 3))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Page size must be between 1 and 2");
+
+        verify(productJdbcRepository, never())
+                .findChangesAfter(any(), anyLong(), any(), anyInt());
+    }
+
+    private static ProductChange updated(Long id, LocalDateTime changedAt) {
+        return ProductChange.builder()
+                .productId(id)
+                .changedAt(changedAt)
+                .product(ProductDto.builder().id(id).name("Product " + id).updatedAt(changedAt).build())
+                .build();
+    }
+
+    private static ProductChange deleted(Long id, LocalDateTime changedAt) {
+        return ProductChange.builder()
+                .productId(id)
+                .deleted(true)
+                .changedAt(changedAt)
+                .build();
+    }
+}
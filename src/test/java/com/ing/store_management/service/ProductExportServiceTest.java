@@ -0,0 +1,145 @@
+package com.ing.store_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductExportServiceTest {
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    private ProductExportService productExportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        productExportService = new ProductExportService(productJdbcRepository, objectMapper, 100, 1, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productExportService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_Csv_EscapesQuotesAndCommas() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductDto> consumer = invocation.getArgument(1);
+            consumer.accept(product(1L, "Plain", "Simple"));
+            consumer.accept(product(2L, "Desk, \"Oak\"", null));
+            return null;
+        }).when(productJdbcRepository).streamAll(eq(100), any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = productExportService.export(ProductExportService.Format.CSV, false, out);
+
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,name,description,price,quantity,category,createdAt,updatedAt\n" +
+                "1,Plain,Simple,9.50,3,Home,2024-01-15T10:30,\n" +
+                "2,\"Desk, \"\"Oak\"\"\",,9.50,3,Home,2024-01-15T10:30,\n");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_GzippedNdjson_WritesOneObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductDto> consumer = invocation.getArgument(1);
+            for (long id = 1; id <= 50; id++) {
+                consumer.accept(product(id, "Product " + id, null));
+            }
+            return null;
+        }).when(productJdbcRepository).streamAll(eq(100), any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = productExportService.export(ProductExportService.Format.NDJSON, true, out);
+
+        String body = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertThat(rows).isEqualTo(50);
+        assertThat(body.split("\n")).hasSize(50);
+        assertThat(body).startsWith("{\"id\":1,\"name\":\"Product 1\"");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_ReadFailure_ThrowsException() {
+        doThrow(new IllegalStateException("connection lost"))
+                .when(productJdbcRepository).streamAll(eq(100), any(Consumer.class));
+
+        assertThatThrownBy(() -> productExportService.export(ProductExportService.Format.CSV, false, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Product export failed after 0 rows")
+                .hasRootCauseMessage("connection lost");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_ReadFailureMidStream_LeavesGzipUnterminated() {
+        doAnswer(invocation -> {
+            Consumer<ProductDto> consumer = invocation.getArgument(1);
+            for (long id = 1; id <= 20; id++) {
+                consumer.accept(product(id, "Product " + id, null));
+            }
+            throw new IllegalStateException("connection lost");
+        }).when(productJdbcRepository).streamAll(eq(100), any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThatThrownBy(() -> productExportService.export(ProductExportService.Format.NDJSON, true, out))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Product export failed after 20 rows")
+                .hasRootCauseMessage("connection lost");
+
+        // No trailer was written, so the partial download cannot pass for a complete file
+        assertThatThrownBy(() -> new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes())
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void formatFrom_UnknownFormat_ThrowsException() {
+        assertThatThrownBy(() -> ProductExportService.Format.from("xml"))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Unsupported export format: xml");
+    }
+
+    private ProductDto product(Long id, String name, String description) {
+        return ProductDto.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(new BigDecimal("9.50"))
+                .quantity(3)
+                .category("Home")
+                .createdAt(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .build();
+    }
+}
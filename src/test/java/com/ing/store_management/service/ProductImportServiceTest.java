@@ -0,0 +1,168 @@
+package com.ing.store_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.store_management.dto.ProductChangeEvent;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.dto.ProductImportReport;
+import com.ing.store_management.dto.StockLevelsChangedEvent;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.repository.ProductJdbcRepository;
+import com.ing.store_management.search.ProductSearchIndex;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceTest {
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ValidatorFactory validatorFactory;
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        productImportService = new ProductImportService(productJdbcRepository, productSearchIndex, new ObjectMapper(),
+                validatorFactory.getValidator(), eventPublisher, transactionManager, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importProducts_Csv_InsertsValidRowsInChunksAndReportsErrors() throws Exception {
+        when(productJdbcRepository.findExistingLowerCaseNames(anyCollection()))
+                .thenReturn(Set.of("desk lamp"))
+                .thenReturn(Set.of());
+        when(productJdbcRepository.batchInsert(any(), any(LocalDateTime.class)))
+                .thenReturn(List.of(10L))
+                .thenReturn(List.of(11L));
+
+        String csv = """
+                name,price,quantity,category,description
+                Desk Lamp,19.99,5,Home,LED
+                "Chair, Oak",49.00,2,Home,"Solid ""oak"" chair"
+                Mug,not-a-number,1,Kitchen,
+                Plate,3.50,10,Kitchen,
+                plate,3.50,10,Kitchen,
+                Bowl,0,10,Kitchen,
+                """;
+
+        ProductImportReport report = productImportService.importProducts(ProductImportService.Format.CSV, stream(csv));
+
+        ArgumentCaptor<List<ProductDto>> batches = ArgumentCaptor.forClass(List.class);
+        verify(productJdbcRepository, times(2)).batchInsert(batches.capture(), any(LocalDateTime.class));
+        assertThat(batches.getAllValues().get(0)).extracting(ProductDto::getName).containsExactly("Chair, Oak");
+        assertThat(batches.getAllValues().get(0).get(0).getDescription()).isEqualTo("Solid \"oak\" chair");
+        assertThat(batches.getAllValues().get(1)).extracting(ProductDto::getName).containsExactly("Plate");
+        verify(productSearchIndex, times(2)).index(anyCollection());
+
+        assertThat(report.getTotalRows()).isEqualTo(6);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(4);
+        assertThat(report.getErrors()).extracting(ProductImportReport.RowError::getRow)
+                .containsExactlyInAnyOrder(1L, 3L, 5L, 6L);
+        assertThat(report.getErrors()).filteredOn(error -> error.getRow() == 6)
+                .extracting(ProductImportReport.RowError::getMessage)
+                .containsExactly("price: Price must be greater than zero");
+        verify(eventPublisher).publishEvent(any(ProductChangeEvent.class));
+        verify(eventPublisher, atLeastOnce()).publishEvent(any(StockLevelsChangedEvent.class));
+    }
+
+    @Test
+    void importProducts_Json_ReportsUnmappableRows() throws Exception {
+        when(productJdbcRepository.findExistingLowerCaseNames(anyCollection())).thenReturn(Set.of());
+        when(productJdbcRepository.batchInsert(any(), any(LocalDateTime.class))).thenReturn(List.of(10L));
+
+        String json = """
+                [{"name":"Desk Lamp","price":19.99,"quantity":5,"category":"Home"},
+                 {"name":"Chair","price":"free","quantity":2,"category":"Home"}]
+                """;
+
+        ProductImportReport report = productImportService.importProducts(ProductImportService.Format.JSON, stream(json));
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getName()).isEqualTo("Chair");
+    }
+
+    @Test
+    void importProducts_JsonNonObjectElement_IsRejectedAndLaterRowsStillImported() throws Exception {
+        when(productJdbcRepository.findExistingLowerCaseNames(anyCollection())).thenReturn(Set.of());
+        when(productJdbcRepository.batchInsert(any(), any(LocalDateTime.class))).thenReturn(List.of(10L, 11L));
+
+        String json = """
+                [{"name":"Desk Lamp","price":19.99,"quantity":5,"category":"Home"},
+                 42,
+                 ["nested", {"name":"Ignored"}],
+                 {"name":"Chair","price":49.00,"quantity":2,"category":"Home"}]
+                """;
+
+        ProductImportReport report = productImportService.importProducts(ProductImportService.Format.JSON, stream(json));
+
+        assertThat(report.getTotalRows()).isEqualTo(4);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ProductImportReport.RowError::getRow).containsExactly(2L, 3L);
+        assertThat(report.getErrors()).extracting(ProductImportReport.RowError::getMessage)
+                .containsOnly("Expected a JSON object");
+    }
+
+    @Test
+    void importProducts_CsvUnterminatedQuote_ThrowsInvalidRequestWithRow() {
+        assertThatThrownBy(() -> productImportService.importProducts(ProductImportService.Format.CSV,
+                stream("name,price,quantity,category\nLamp,1.00,1,Home\n\"Chair,2.00,1,Home\n")))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("row 2");
+    }
+
+    @Test
+    void importProducts_CsvMissingRequiredColumns_ThrowsException() {
+        assertThatThrownBy(() -> productImportService.importProducts(ProductImportService.Format.CSV,
+                stream("name,price\nLamp,1.00\n")))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verify(productJdbcRepository, never()).batchInsert(any(), any());
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
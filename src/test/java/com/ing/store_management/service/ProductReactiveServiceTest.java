@@ -0,0 +1,91 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.cache.ProductCache;
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.exception.ProductNotFoundException;
+import com.ing.store_management.repository.ProductReactiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductReactiveServiceTest {
+    @Mock
+    private ProductReactiveRepository productReactiveRepository;
+
+    @Mock
+    private ProductService productService;
+
+    private ProductCache productCache;
+    private ProductReactiveService productReactiveService;
+    private ProductDto productDto;
+
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(100, Duration.ofMinutes(5));
+        productReactiveService = new ProductReactiveService(productReactiveRepository, productService, productCache);
+        productDto = ProductDto.builder()
+                .id(1L)
+                .name("Test Product")
+                .price(new BigDecimal("99.99"))
+                .quantity(10)
+                .category("Electronics")
+                .version(3L)
+                .build();
+    }
+
+    @Test
+    void findProductById_CacheHit_DoesNotQuery() {
+        productCache.get(1L, id -> productDto);
+
+        assertThat(productReactiveService.findProductById(1L).block()).isSameAs(productDto);
+
+        verify(productReactiveRepository, never()).findById(any());
+    }
+
+    @Test
+    void findProductById_NotFound_EmitsError() {
+        when(productReactiveRepository.findById(1L)).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> productReactiveService.findProductById(1L).block())
+                .isInstanceOf(ProductNotFoundException.class)
+                .hasMessage("Product not found with ID: 1");
+    }
+
+    @Test
+    void findProductsByCategory_UsesSharedPageValidation() {
+        when(productService.pageRequest(1, 20)).thenReturn(PageRequest.of(1, 20));
+        when(productReactiveRepository.findByCategory("Electronics", PageRequest.of(1, 20)))
+                .thenReturn(Flux.just(productDto));
+
+        assertThat(productReactiveService.findProductsByCategory("Electronics", 1, 20).collectList().block())
+                .containsExactly(productDto);
+    }
+
+    @Test
+    void findProductsByName_InvalidPage_FailsBeforeQuerying() {
+        when(productService.pageRequest(0, 500)).thenThrow(new InvalidRequestException("Page size must be between 1 and 100"));
+
+        assertThatThrownBy(() -> productReactiveService.findProductsByName("Test", 0, 500))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verify(productReactiveRepository, never()).findByNameContaining(anyString(), any());
+    }
+}
@@ -1,30 +1,64 @@
 package com.ing.store_management.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.store_management.cache.ProductCache;
+import com.ing.store_management.cache.ProductResponseCache;
+import com.ing.store_management.dto.CursorPage;
+import com.ing.store_management.dto.ProductChangeEvent;
+import com.ing.store_management.dto.ProductBatchResponse;
 import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.dto.ProductPatchRequest;
+import com.ing.store_management.dto.ProductQueryResponse;
+import com.ing.store_management.dto.StockLevelResponse;
+import com.ing.store_management.exception.ConcurrentUpdateException;
 import com.ing.store_management.exception.DuplicateProductException;
+import com.ing.store_management.exception.InsufficientStockException;
+import com.ing.store_management.exception.InvalidRequestException;
+import com.ing.store_management.exception.PreconditionFailedException;
 import com.ing.store_management.exception.ProductNotFoundException;
 import com.ing.store_management.model.Product;
+import com.ing.store_management.repository.PatchedProduct;
+import com.ing.store_management.repository.ProductJdbcRepository;
 import com.ing.store_management.repository.ProductRepository;
+import com.ing.store_management.repository.ProductStock;
+import com.ing.store_management.search.ProductSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +67,25 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    private ProductResponseCache productResponseCache =
+            new ProductResponseCache(new ObjectMapper().findAndRegisterModules(), 100, Duration.ofMinutes(5));
+
     @InjectMocks
     private ProductService productService;
 
@@ -41,6 +94,9 @@ public class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
         product = new Product();
         product.setId(1L);
         product.setName("Test Product");
@@ -50,6 +106,7 @@ public class ProductServiceTest {
         product.setCategory("Electronics");
         product.setCreatedAt(LocalDateTime.now());
         product.setUpdatedAt(LocalDateTime.now());
+        product.setVersion(3L);
 
         productDto = ProductDto.builder()
                 .id(1L)
@@ -58,6 +115,7 @@ public class ProductServiceTest {
                 .price(new BigDecimal("99.99"))
                 .quantity(10)
                 .category("Electronics")
+                .version(3L)
                 .build();
     }
 
@@ -73,6 +131,12 @@ public class ProductServiceTest {
         assertThat(result.getPrice()).isEqualTo(new BigDecimal("99.99"));
         verify(productRepository).findByNameIgnoreCase("Test Product");
         verify(productRepository).save(any(Product.class));
+        verify(productSearchIndex).index(any(ProductDto.class));
+
+        ArgumentCaptor<ProductChangeEvent> event = ArgumentCaptor.forClass(ProductChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(ProductChangeEvent.Type.CREATED);
+        assertThat(event.getValue().getCategory()).isEqualTo("Electronics");
     }
 
     @Test
@@ -89,79 +153,271 @@ public class ProductServiceTest {
 
     @Test
     void findProductById_Success() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findProductDtoById(1L)).thenReturn(Optional.of(productDto));
 
         ProductDto result = productService.findProductById(1L);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getName()).isEqualTo("Test Product");
-        verify(productRepository).findById(1L);
+        verify(productRepository).findProductDtoById(1L);
     }
 
     @Test
     void findProductById_NotFound_ThrowsException() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findProductDtoById(1L)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> productService.findProductById(1L))
                 .isInstanceOf(ProductNotFoundException.class)
                 .hasMessage("Product not found with ID: 1");
 
-        verify(productRepository).findById(1L);
+        verify(productRepository).findProductDtoById(1L);
+    }
+
+    @Test
+    void findProductById_SecondCallServedFromCache() {
+        when(productRepository.findProductDtoById(1L)).thenReturn(Optional.of(productDto));
+
+        ProductDto first = productService.findProductById(1L);
+        ProductDto second = productService.findProductById(1L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(productCache.stats().hitCount()).isEqualTo(1);
+        verify(productRepository, times(1)).findProductDtoById(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findProductsByIds_QueriesOnlyCacheMissesAndReportsMissingIds() {
+        ProductDto other = ProductDto.builder().id(2L).name("Other").price(BigDecimal.ONE).quantity(1).category("Home").build();
+        when(productRepository.findProductDtoById(1L)).thenReturn(Optional.of(productDto));
+        when(productRepository.findProductDtosByIdIn(any())).thenReturn(List.of(other));
+        productService.findProductById(1L);
+
+        ProductBatchResponse result = productService.findProductsByIds(List.of(2L, 1L, 9L, 2L));
+
+        assertThat(result.getProducts()).extracting(ProductDto::getId).containsExactly(2L, 1L);
+        assertThat(result.getMissingIds()).containsExactly(9L);
+        ArgumentCaptor<Collection<Long>> queried = ArgumentCaptor.forClass(Collection.class);
+        verify(productRepository).findProductDtosByIdIn(queried.capture());
+        assertThat(queried.getValue()).containsExactlyInAnyOrder(2L, 9L);
+    }
+
+    @Test
+    void findProductsByIds_SplitsLargeBatchesIntoChunkedQueries() {
+        List<Long> ids = LongStream.rangeClosed(1, ProductService.BATCH_QUERY_CHUNK_SIZE + 1).boxed().toList();
+        when(productRepository.findProductDtosByIdIn(any())).thenReturn(List.of());
+
+        ProductBatchResponse result = productService.findProductsByIds(ids);
+
+        assertThat(result.getMissingIds()).hasSize(ids.size());
+        verify(productRepository, times(2)).findProductDtosByIdIn(any());
+    }
+
+    @Test
+    void findProductsByIds_TooManyIds_ThrowsException() {
+        List<Long> ids = LongStream.rangeClosed(1, ProductService.MAX_BATCH_IDS + 1).boxed().toList();
+
+        assertThatThrownBy(() -> productService.findProductsByIds(ids))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verify(productRepository, never()).findProductDtosByIdIn(any());
+    }
+
+    @Test
+    void findSerializedProductById_ReusesBytesUntilProductChanges() {
+        when(productRepository.findProductDtoById(1L)).thenReturn(Optional.of(productDto));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        ProductResponseCache.SerializedProduct first = productService.findSerializedProductById(1L);
+        ProductResponseCache.SerializedProduct second = productService.findSerializedProductById(1L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.etag()).isEqualTo("\"3\"");
+        assertThat(new String(first.json())).contains("\"name\":\"Test Product\"", "\"version\":3");
+
+        productService.updateProduct(1L, ProductDto.builder().price(new BigDecimal("10.00")).build());
+
+        verify(productResponseCache).invalidate(1L);
+        assertThat(productService.findSerializedProductById(1L)).isNotSameAs(first);
+    }
+
+    @Test
+    void updateProduct_InvalidatesCachedProduct() {
+        when(productRepository.findProductDtoById(1L)).thenReturn(Optional.of(productDto));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        productService.findProductById(1L);
+
+        productService.updateProduct(1L, ProductDto.builder().price(new BigDecimal("10.00")).build());
+        productService.findProductById(1L);
+
+        verify(productCache).invalidate(1L);
+        verify(productRepository, times(2)).findProductDtoById(1L);
     }
 
     @Test
     void findAllProducts_Success() {
-        List<Product> products = Arrays.asList(product);
-        Page<Product> productPage = new PageImpl<>(products);
+        Page<ProductDto> productPage = new PageImpl<>(List.of(productDto));
         Pageable pageable = PageRequest.of(0, 10);
-        when(productRepository.findAll(pageable)).thenReturn(productPage);
+        when(productRepository.findAllProductDtos(pageable)).thenReturn(productPage);
 
         Page<ProductDto> result = productService.findAllProducts(pageable);
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getName()).isEqualTo("Test Product");
-        verify(productRepository).findAll(pageable);
+        verify(productRepository).findAllProductDtos(pageable);
     }
 
     @Test
-    void findAvailableProducts_Success() {
-        List<Product> products = Arrays.asList(product);
-        when(productRepository.findAvailableProducts()).thenReturn(products);
+    void findProductsAfterCursor_ReturnsContinuationTokenForNextPage() {
+        Window<Product> window = Window.from(List.of(product),
+                index -> ScrollPosition.forward(Map.of("price", product.getPrice(), "id", product.getId())), true);
+        when(productRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class))).thenReturn(window);
+
+        CursorPage<ProductDto> firstPage = productService.findProductsAfterCursor(null, 1, "price", "asc", false);
+        productService.findProductsAfterCursor(firstPage.getNextCursor(), 1, "name", "desc", false);
+
+        assertThat(firstPage.getContent()).hasSize(1);
+        assertThat(firstPage.isHasNext()).isTrue();
+        assertThat(firstPage.getTotalElements()).isNull();
+        verify(productRepository).findAllBy(ScrollPosition.forward(Map.of("price", new BigDecimal("99.99"), "id", 1L)),
+                Sort.by(Sort.Direction.ASC, "price", "id"), Limit.of(1));
+        verify(productRepository, never()).count();
+    }
 
-        List<ProductDto> result = productService.findAvailableProducts();
+    @Test
+    void findProductsAfterCursor_InvalidCursor_ThrowsException() {
+        assertThatThrownBy(() -> productService.findProductsAfterCursor("not-a-cursor", 10, "name", "asc", false))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Invalid cursor");
 
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getName()).isEqualTo("Test Product");
-        verify(productRepository).findAvailableProducts();
+        verify(productRepository, never()).findAllBy(any(), any(), any());
     }
 
     @Test
-    void findProductsByName_Success() {
-        List<Product> products = Arrays.asList(product);
-        when(productRepository.findByNameContainingIgnoreCase("Test")).thenReturn(products);
+    void findAvailableProducts_WithoutTotal_ReturnsSliceWithoutCounting() {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(productRepository.findAvailableProductDtos(pageable))
+                .thenReturn(new SliceImpl<>(List.of(productDto), pageable, true));
 
-        List<ProductDto> result = productService.findProductsByName("Test");
+        Slice<ProductDto> result = productService.findAvailableProducts(0, 1, false);
 
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getName()).isEqualTo("Test Product");
-        verify(productRepository).findByNameContainingIgnoreCase("Test");
+        assertThat(result).isNotInstanceOf(Page.class);
+        assertThat(result.getContent()).extracting(ProductDto::getName).containsExactly("Test Product");
+        assertThat(result.hasNext()).isTrue();
+        verify(productRepository, never()).countByQuantityGreaterThan(anyInt());
     }
 
     @Test
-    void findProductsByCategory_Success() {
-        List<Product> products = Arrays.asList(product);
-        when(productRepository.findByCategory("Electronics")).thenReturn(products);
+    void findProductsByName_WithTotal_CountsMatches() {
+        Pageable pageable = PageRequest.of(0, 1);
+        when(productRepository.findProductDtosByNameContaining("Test", pageable))
+                .thenReturn(new SliceImpl<>(List.of(productDto), pageable, true));
+        when(productRepository.countByNameContainingIgnoreCase("Test")).thenReturn(5L);
 
-        List<ProductDto> result = productService.findProductsByCategory("Electronics");
+        Slice<ProductDto> result = productService.findProductsByName("Test", 0, 1, true);
 
-        assertThat(result).isNotNull();
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getCategory()).isEqualTo("Electronics");
-        verify(productRepository).findByCategory("Electronics");
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(((Page<ProductDto>) result).getTotalElements()).isEqualTo(5);
+        assertThat(result.getContent()).extracting(ProductDto::getName).containsExactly("Test Product");
+    }
+
+    @Test
+    void searchProducts_KeepsIndexRelevanceOrderAndSkipsDeletedHits() {
+        ProductDto other = ProductDto.builder().id(2L).name("Other").price(BigDecimal.ONE).quantity(1).category("Home").build();
+        when(productSearchIndex.search("test", 0, 10)).thenReturn(new ProductSearchIndex.SearchHits(List.of(2L, 1L, 3L), 3));
+        when(productRepository.findProductDtosByIdIn(List.of(2L, 1L, 3L))).thenReturn(List.of(productDto, other));
+
+        Page<ProductDto> result = productService.searchProducts("test", 0, 10);
+
+        assertThat(result.getContent()).extracting(ProductDto::getId).containsExactly(2L, 1L);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void searchProducts_BeyondResultWindow_ThrowsException() {
+        assertThatThrownBy(() -> productService.searchProducts("test", 100, 100))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verify(productSearchIndex, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void queryProducts_LoadsPageByIdAndReturnsFacetsSortedByCount() {
+        when(productSearchIndex.facetedSearch(any(ProductSearchIndex.FacetQuery.class), eq(0), eq(1)))
+                .thenReturn(new ProductSearchIndex.FacetedHits(List.of(1L), 3, Map.of("Home", 1L, "Electronics", 3L),
+                        List.of(0L, 0L, 3L, 0L, 0L, 0L)));
+        when(productRepository.findProductDtosByIdIn(List.of(1L))).thenReturn(List.of(productDto));
+
+        ProductQueryResponse result = productService.queryProducts("test", List.of(" Electronics ", ""),
+                new BigDecimal("50"), null, true, 0, 1);
+
+        assertThat(result.getContent()).containsExactly(productDto);
+        assertThat(result.getTotalPages()).isEqualTo(3);
+        assertThat(result.isHasNext()).isTrue();
+        assertThat(result.getCategories()).extracting(ProductQueryResponse.CategoryCount::getCategory)
+                .containsExactly("Electronics", "Home");
+        assertThat(result.getPriceRanges().get(2))
+                .isEqualTo(new ProductQueryResponse.PriceRangeCount(new BigDecimal("50"), new BigDecimal("100"), 3));
+        assertThat(result.getPriceRanges().get(5).getTo()).isNull();
+
+        ArgumentCaptor<ProductSearchIndex.FacetQuery> query = ArgumentCaptor.forClass(ProductSearchIndex.FacetQuery.class);
+        verify(productSearchIndex).facetedSearch(query.capture(), eq(0), eq(1));
+        assertThat(query.getValue().categories()).containsExactly("Electronics");
+        assertThat(query.getValue().availableOnly()).isTrue();
+    }
+
+    @Test
+    void queryProducts_MinPriceAboveMaxPrice_ThrowsException() {
+        assertThatThrownBy(() -> productService.queryProducts(null, null, BigDecimal.TEN, BigDecimal.ONE, false, 0, 20))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("minPrice cannot be greater than maxPrice");
+
+        verify(productSearchIndex, never()).facetedSearch(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void queryProducts_PriceBoundBeyondColumnRange_ThrowsException() {
+        assertThatThrownBy(() -> productService.queryProducts(null, null, null, new BigDecimal("1e30"), false, 0, 20))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Price bounds cannot exceed 99999999.99");
+
+        verify(productSearchIndex, never()).facetedSearch(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void setPriceRangeBounds_RejectsUnorderedOrOversizedBounds() {
+        assertThatThrownBy(() -> productService.setPriceRangeBounds(List.of(new BigDecimal("50"), new BigDecimal("25"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.setPriceRangeBounds(List.of(new BigDecimal("25"), new BigDecimal("25"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.setPriceRangeBounds(List.of(new BigDecimal("1e30"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findProductsByCategory_PartialFirstPage_InfersTotalWithoutCounting() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(productRepository.findProductDtosByCategory("Electronics", pageable))
+                .thenReturn(new SliceImpl<>(List.of(productDto), pageable, false));
+
+        Slice<ProductDto> result = productService.findProductsByCategory("Electronics", 0, 20, true);
+
+        assertThat(((Page<ProductDto>) result).getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().get(0).getCategory()).isEqualTo("Electronics");
+        verify(productRepository, never()).countByCategory(anyString());
+    }
+
+    @Test
+    void findProductsByCategory_PageSizeAboveMaximum_ThrowsException() {
+        assertThatThrownBy(() -> productService.findProductsByCategory("Electronics", 0, 101, true))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessage("Page size must be between 1 and 100");
+
+        verify(productRepository, never()).findProductDtosByCategory(anyString(), any());
     }
 
     @Test
@@ -212,6 +468,63 @@ public class ProductServiceTest {
         ));
     }
 
+    @Test
+    void updateProduct_MatchingVersion_Success() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        ProductDto result = productService.updateProduct(1L, productDto, 3L);
+
+        assertThat(result.getVersion()).isEqualTo(3L);
+        verify(productCache).invalidate(1L);
+    }
+
+    @Test
+    void updateProduct_StaleVersion_ThrowsPreconditionFailed() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThatThrownBy(() -> productService.updateProduct(1L, productDto, 2L))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessage("Product 1 is no longer at version 2");
+
+        verify(productRepository, never()).save(any(Product.class));
+        verify(productCache, never()).invalidate(1L);
+    }
+
+    @Test
+    void updateProduct_ModifiedConcurrently_MapsLockFailure() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        assertThatThrownBy(() -> productService.updateProduct(1L, productDto, 3L))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThatThrownBy(() -> productService.updateProduct(1L, productDto))
+                .isInstanceOf(ConcurrentUpdateException.class);
+    }
+
+    @Test
+    void deleteProduct_MatchingVersion_DeletesConditionally() {
+        when(productJdbcRepository.deleteIfVersion(eq(1L), eq(3L), any(LocalDateTime.class))).thenReturn(true);
+
+        productService.deleteProduct(1L, 3L);
+
+        verify(productRepository, never()).deleteById(anyLong());
+        verify(productCache).invalidate(1L);
+        verify(productSearchIndex).delete(1L);
+    }
+
+    @Test
+    void deleteProduct_StaleVersion_ThrowsPreconditionFailed() {
+        when(productJdbcRepository.deleteIfVersion(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(false);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.deleteProduct(1L, 2L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        verify(productSearchIndex, never()).delete(anyLong());
+    }
+
     @Test
     void deleteProduct_Success() {
         when(productRepository.existsById(1L)).thenReturn(true);
@@ -220,6 +533,9 @@ public class ProductServiceTest {
 
         verify(productRepository).existsById(1L);
         verify(productRepository).deleteById(1L);
+        verify(productJdbcRepository).recordTombstones(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(productCache).invalidate(1L);
+        verify(productSearchIndex).delete(1L);
     }
 
     @Test
@@ -233,5 +549,113 @@ public class ProductServiceTest {
         verify(productRepository).existsById(1L);
         verify(productRepository, never()).deleteById(anyLong());
     }
-}
 
+    @Test
+    void patchProduct_Success_ReturnsUpdatedRowAndInvalidatesCache() {
+        ProductPatchRequest patch = ProductPatchRequest.builder().price(new BigDecimal("89.99")).build();
+        ProductDto patched = ProductDto.builder().id(1L).name("Test Product").price(new BigDecimal("89.99"))
+                .quantity(10).category("Electronics").version(4L).build();
+        when(productJdbcRepository.patch(eq(1L), eq(patch), eq(3L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new PatchedProduct(patched, null)));
+
+        ProductDto result = productService.patchProduct(1L, patch, 3L);
+
+        assertThat(result.getPrice()).isEqualByComparingTo("89.99");
+        assertThat(result.getVersion()).isEqualTo(4L);
+        verify(productCache).invalidate(1L);
+        verify(productResponseCache).invalidate(1L);
+        verify(productSearchIndex).index(patched);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void patchProduct_StaleVersion_ThrowsPreconditionFailed() {
+        ProductPatchRequest patch = ProductPatchRequest.builder().quantity(5).build();
+        when(productJdbcRepository.patch(eq(1L), eq(patch), eq(2L), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> productService.patchProduct(1L, patch, 2L))
+                .isInstanceOf(PreconditionFailedException.class);
+
+        verify(productCache, never()).invalidate(any());
+    }
+
+    @Test
+    void patchProduct_NotFound_ThrowsException() {
+        ProductPatchRequest patch = ProductPatchRequest.builder().quantity(5).build();
+        when(productJdbcRepository.patch(eq(1L), eq(patch), eq(null), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> productService.patchProduct(1L, patch, null))
+                .isInstanceOf(ProductNotFoundException.class)
+                .hasMessage("Product not found with ID: 1");
+    }
+
+    @Test
+    void patchProduct_NoFields_ThrowsException() {
+        assertThatThrownBy(() -> productService.patchProduct(1L, new ProductPatchRequest(), null))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verify(productJdbcRepository, never()).patch(any(), any(), any(), any());
+    }
+
+    @Test
+    void decrementStock_Success_ReturnsNewQuantityAndInvalidatesCache() {
+        when(productJdbcRepository.decrementQuantity(eq(1L), eq(3), any(LocalDateTime.class))).thenReturn(Optional.of(new ProductStock(1L, 7, "Electronics", 4L)));
+
+        StockLevelResponse result = productService.decrementStock(1L, 3);
+
+        assertThat(result.getProductId()).isEqualTo(1L);
+        assertThat(result.getQuantity()).isEqualTo(7);
+        verify(productCache).invalidate(1L);
+        verify(productRepository, never()).save(any(Product.class));
+
+        ArgumentCaptor<ProductChangeEvent> event = ArgumentCaptor.forClass(ProductChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(ProductChangeEvent.Type.STOCK_CHANGED);
+        assertThat(event.getValue().getCategory()).isEqualTo("Electronics");
+        assertThat(event.getValue().getVersion()).isEqualTo(4L);
+        assertThat(event.getValue().getQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void decrementStock_NotEnoughStock_ThrowsException() {
+        when(productJdbcRepository.decrementQuantity(eq(1L), eq(30), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(productRepository.findQuantityById(1L)).thenReturn(Optional.of(10));
+
+        assertThatThrownBy(() -> productService.decrementStock(1L, 30))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage("Insufficient stock for product 1: requested 30, available 10");
+
+        verify(productCache, never()).invalidate(1L);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void decrementStock_NotFound_ThrowsException() {
+        when(productJdbcRepository.decrementQuantity(eq(1L), eq(1), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(productRepository.findQuantityById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.decrementStock(1L, 1))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+
+    @Test
+    void incrementStock_Success_ReturnsNewQuantity() {
+        when(productJdbcRepository.incrementQuantity(eq(1L), eq(5), any(LocalDateTime.class))).thenReturn(Optional.of(new ProductStock(1L, 15, "Electronics", 4L)));
+
+        StockLevelResponse result = productService.incrementStock(1L, 5);
+
+        assertThat(result.getQuantity()).isEqualTo(15);
+        verify(productCache).invalidate(1L);
+    }
+
+    @Test
+    void incrementStock_NotFound_ThrowsException() {
+        when(productJdbcRepository.incrementQuantity(eq(1L), eq(5), any(LocalDateTime.class))).thenReturn(Optional.empty());
+        when(productRepository.existsById(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> productService.incrementStock(1L, 5))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.dto.ProductDto;
+import com.ing.store_management.exception.InsufficientStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers a single product row from many threads to show that stock adjustments are not lost under contention.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-concurrency",
+        "app.search.index-dir=${java.io.tmpdir}/store-management/stock-concurrency-index"
+})
+@Slf4j
+class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ProductService productService;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentDecrements_SellExactlyTheAvailableStock() throws Exception {
+        int initialStock = 4_000;
+        Long productId = createProduct(initialStock);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long elapsedNanos = runConcurrently(() -> {
+            while (true) {
+                try {
+                    productService.decrementStock(productId, 1);
+                    sold.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                    return;
+                }
+            }
+        });
+
+        log.info("{} threads sold {} units of one product in {} ms ({} decrements/sec)", THREADS, sold.get(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), perSecond(sold.get() + rejected.get(), elapsedNanos));
+        assertThat(sold.get()).isEqualTo(initialStock);
+        assertThat(rejected.get()).isEqualTo(THREADS);
+        assertThat(productService.findProductById(productId).getQuantity()).isZero();
+    }
+
+    @Test
+    void concurrentIncrementsAndDecrements_AreAllApplied() throws Exception {
+        int operationsPerThread = 250;
+        int initialStock = 1_000;
+        Long productId = createProduct(initialStock);
+
+        long elapsedNanos = runConcurrently(() -> {
+            for (int i = 0; i < operationsPerThread; i++) {
+                productService.incrementStock(productId, 2);
+                productService.decrementStock(productId, 1);
+            }
+        });
+
+        int operations = THREADS * operationsPerThread * 2;
+        log.info("{} threads applied {} mixed stock adjustments in {} ms ({} adjustments/sec)", THREADS, operations,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), perSecond(operations, elapsedNanos));
+        assertThat(productService.findProductById(productId).getQuantity())
+                .isEqualTo(initialStock + THREADS * operationsPerThread);
+    }
+
+    private Long createProduct(int quantity) {
+        return productService.createProduct(ProductDto.builder()
+                .name("Contended " + UUID.randomUUID())
+                .price(new BigDecimal("9.99"))
+                .quantity(quantity)
+                .category("Test")
+                .build()).getId();
+    }
+
+    private long runConcurrently(Runnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    private static long perSecond(long count, long elapsedNanos) {
+        return count * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1);
+    }
+}
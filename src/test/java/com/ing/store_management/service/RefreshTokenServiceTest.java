@@ -0,0 +1,168 @@
+package com.ing.store_management.service;
+
+import com.ing.store_management.exception.AccountDisabledException;
+import com.ing.store_management.exception.InvalidRefreshTokenException;
+import com.ing.store_management.repository.RefreshTokenJdbcRepository;
+import com.ing.store_management.repository.RefreshTokenRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenJdbcRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+
+    private final UUID familyId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, Duration.ofDays(14), Duration.ofHours(1),
+                2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshTokenService.close();
+    }
+
+    @Test
+    void issue_StoresOnlyTheDigest() {
+        String token = refreshTokenService.issue(1L);
+
+        ArgumentCaptor<byte[]> hash = ArgumentCaptor.forClass(byte[].class);
+        verify(refreshTokenRepository).insert(hash.capture(), any(UUID.class), eq(1L), any(LocalDateTime.class),
+                any(LocalDateTime.class));
+        assertThat(hash.getValue()).hasSize(32);
+        assertThat(new String(hash.getValue())).doesNotContain(token);
+    }
+
+    @Test
+    void rotate_ValidToken_ReturnsSuccessor() {
+        RefreshTokenRecord current = token(true, null);
+        when(refreshTokenRepository.findByHash(any(byte[].class))).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.rotate(eq(current), any(byte[].class), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(true);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("presented");
+
+        assertThat(rotation.previous()).isSameAs(current);
+        assertThat(rotation.refreshToken()).isNotBlank().isNotEqualTo("presented");
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void rotate_UsedToken_RevokesFamily() {
+        when(refreshTokenRepository.findByHash(any(byte[].class)))
+                .thenReturn(Optional.of(token(true, LocalDateTime.now().minusMinutes(5))));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("presented"))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token has already been used");
+
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any(LocalDateTime.class));
+        verify(refreshTokenRepository, never()).rotate(any(), any(), any(), any());
+    }
+
+    @Test
+    void rotate_RevokedToken_IsRejectedWithoutReuseAlarm() {
+        when(refreshTokenRepository.findByHash(any(byte[].class)))
+                .thenReturn(Optional.of(token(true, null, LocalDateTime.now().minusMinutes(5))));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("presented"))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token has been revoked");
+
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+        verify(refreshTokenRepository, never()).rotate(any(), any(), any(), any());
+    }
+
+    @Test
+    void rotate_LosingConcurrentRefresh_RevokesFamily() {
+        RefreshTokenRecord current = token(true, null);
+        when(refreshTokenRepository.findByHash(any(byte[].class)))
+                .thenReturn(Optional.of(current), Optional.of(token(true, LocalDateTime.now())));
+        when(refreshTokenRepository.rotate(eq(current), any(byte[].class), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(false);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("presented"))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token has already been used");
+
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any(LocalDateTime.class));
+    }
+
+    @Test
+    void rotate_RevokedByConcurrentLogout_IsRejectedWithoutReuseAlarm() {
+        RefreshTokenRecord current = token(true, null);
+        when(refreshTokenRepository.findByHash(any(byte[].class)))
+                .thenReturn(Optional.of(current), Optional.of(token(true, null, LocalDateTime.now())));
+        when(refreshTokenRepository.rotate(eq(current), any(byte[].class), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(false);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("presented"))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token has been revoked");
+
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
+    }
+
+    @Test
+    void rotate_DisabledUser_RevokesAllTokensOfUser() {
+        when(refreshTokenRepository.findByHash(any(byte[].class))).thenReturn(Optional.of(token(false, null)));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("presented"))
+                .isInstanceOf(AccountDisabledException.class);
+
+        verify(refreshTokenRepository).revokeByUser(eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void rotate_UnknownToken_ThrowsException() {
+        when(refreshTokenRepository.findByHash(any(byte[].class))).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("presented"))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessage("Refresh token is not valid");
+    }
+
+    @Test
+    void purgeExpired_DeletesInBatchesUntilShortBatch() {
+        when(refreshTokenRepository.purgeExpiredBefore(any(LocalDateTime.class), anyInt())).thenReturn(2, 2, 1);
+
+        refreshTokenService.purgeExpired();
+
+        verify(refreshTokenRepository, times(3)).purgeExpiredBefore(any(LocalDateTime.class), eq(2));
+    }
+
+    private RefreshTokenRecord token(boolean userEnabled, LocalDateTime usedAt) {
+        return token(userEnabled, usedAt, null);
+    }
+
+    private RefreshTokenRecord token(boolean userEnabled, LocalDateTime usedAt, LocalDateTime revokedAt) {
+        return new RefreshTokenRecord(7L, familyId, 1L, "testuser", "EMPLOYEE", 0, userEnabled,
+                LocalDateTime.now().plusDays(1), usedAt, revokedAt);
+    }
+}
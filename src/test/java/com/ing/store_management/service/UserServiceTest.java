@@ -5,6 +5,7 @@ import com.ing.store_management.exception.DuplicateUserException;
 import com.ing.store_management.exception.UserNotFoundException;
 import com.ing.store_management.model.User;
 import com.ing.store_management.repository.UserRepository;
+import com.ing.store_management.security.SecurityStampRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +21,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -32,6 +34,9 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private SecurityStampRegistry securityStamps;
+
     @InjectMocks
     private UserService userService;
 
@@ -79,6 +84,7 @@ public class UserServiceTest {
         verify(userRepository).existsByEmail("test@example.com");
         verify(passwordEncoder).encode("rawPassword");
         verify(userRepository).save(any(User.class));
+        verify(securityStamps).update("testuser", 0);
     }
 
     @Test
@@ -92,6 +98,7 @@ public class UserServiceTest {
         verify(userRepository).existsByUsername("testuser");
         verify(userRepository, never()).existsByEmail(anyString());
         verify(userRepository, never()).save(any(User.class));
+        verify(securityStamps, never()).update(anyString(), anyInt());
     }
 
     @Test
@@ -211,7 +218,8 @@ public class UserServiceTest {
 
         assertThat(result).isNotNull();
         verify(userRepository).findById(1L);
-        verify(userRepository).save(argThat(u -> u.getRole() == User.Role.MANAGER));
+        verify(userRepository).save(argThat(u -> u.getRole() == User.Role.MANAGER && u.getSecurityStamp() == 1));
+        verify(securityStamps).update("testuser", 1);
     }
 
     @Test
@@ -250,6 +258,7 @@ public class UserServiceTest {
         assertThat(result).isNotNull();
         verify(userRepository).findById(1L);
         verify(userRepository).save(argThat(u -> !u.getEnabled()));
+        verify(securityStamps).update("testuser", 1);
     }
 
     @Test
@@ -0,0 +1,237 @@
+package com.ing.store_management.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.store_management.dto.ProductChangeEvent;
+import com.ing.store_management.dto.ProductDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductChangeBroadcasterTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    private ProductChangeBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.close();
+        }
+    }
+
+    @Test
+    void subscriber_ReceivesOnlyItsCategoriesAndCategorylessEvents() throws Exception {
+        broadcaster = broadcaster(16, ProductChangeBroadcaster.OverflowPolicy.DROP);
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter, Set.of("Electronics"), null);
+
+        broadcaster.broadcast(ProductChangeEvent.created(product(1L, "Electronics")));
+        broadcaster.broadcast(ProductChangeEvent.created(product(2L, "Books")));
+        broadcaster.broadcast(ProductChangeEvent.deleted(3L));
+
+        List<String> frames = emitter.awaitFrames(2);
+        assertThat(frames.get(0)).contains("\"type\":\"CREATED\"").contains("\"productId\":1");
+        assertThat(frames.get(1)).contains("\"type\":\"DELETED\"").contains("\"productId\":3");
+        assertThat(frames).noneMatch(frame -> frame.contains("Books"));
+    }
+
+    @Test
+    void productMovedOutOfCategory_ReachesSubscribersOfEitherCategory() throws Exception {
+        broadcaster = broadcaster(16, ProductChangeBroadcaster.OverflowPolicy.DROP);
+        RecordingEmitter books = new RecordingEmitter();
+        RecordingEmitter electronics = new RecordingEmitter();
+        RecordingEmitter toys = new RecordingEmitter();
+        broadcaster.subscribe(books, Set.of("Books"), null);
+        broadcaster.subscribe(electronics, Set.of("Electronics"), null);
+        broadcaster.subscribe(toys, Set.of("Toys"), null);
+
+        broadcaster.broadcast(ProductChangeEvent.updated(product(1L, "Electronics"), "Books"));
+        broadcaster.broadcast(ProductChangeEvent.deleted(2L));
+
+        assertThat(books.awaitFrames(2).get(0)).contains("\"category\":\"Electronics\"")
+                .contains("\"previousCategory\":\"Books\"");
+        assertThat(electronics.awaitFrames(2).get(0)).contains("\"productId\":1");
+        assertThat(toys.awaitFrames(1)).singleElement().asString().contains("\"productId\":2");
+
+        // A client resuming from before the move, filtering on the old category, gets it replayed
+        String beforeMove = eventId(books.awaitFrames(2).get(0)).replaceAll("-\\d+$", "-0");
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.subscribe(resumed, Set.of("Books"), beforeMove);
+        assertThat(resumed.awaitFrames(2).get(0)).contains("\"previousCategory\":\"Books\"");
+    }
+
+    @Test
+    void updateWithinCategory_OmitsPreviousCategory() {
+        ProductChangeEvent event = ProductChangeEvent.updated(product(1L, "Books"), "Books");
+
+        assertThat(event.getPreviousCategory()).isNull();
+    }
+
+    @Test
+    void resumingSubscriber_ReplaysEventsAfterLastEventId() throws Exception {
+        broadcaster = broadcaster(16, ProductChangeBroadcaster.OverflowPolicy.DROP);
+        RecordingEmitter first = new RecordingEmitter();
+        broadcaster.subscribe(first, Set.of(), null);
+
+        broadcaster.broadcast(ProductChangeEvent.stockChanged(1L, "Electronics", 2L, 5));
+        broadcaster.broadcast(ProductChangeEvent.stockChanged(1L, "Electronics", 3L, 4));
+        broadcaster.broadcast(ProductChangeEvent.stockChanged(1L, "Electronics", 4L, 3));
+        String lastSeen = eventId(first.awaitFrames(3).get(0));
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.subscribe(resumed, Set.of(), lastSeen);
+
+        List<String> replayed = resumed.awaitFrames(2);
+        assertThat(replayed.get(0)).contains("\"quantity\":4");
+        assertThat(replayed.get(1)).contains("\"quantity\":3");
+    }
+
+    @Test
+    void unknownLastEventId_GetsResync() throws Exception {
+        broadcaster = broadcaster(16, ProductChangeBroadcaster.OverflowPolicy.DROP);
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        broadcaster.subscribe(emitter, Set.of(), "previous-run-42");
+
+        assertThat(emitter.awaitFrames(1).get(0)).contains("event:resync");
+    }
+
+    @Test
+    void slowSubscriber_WithDisconnectPolicy_IsDroppedWithoutAffectingOthers() throws Exception {
+        broadcaster = broadcaster(2, ProductChangeBroadcaster.OverflowPolicy.DISCONNECT);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter();
+        broadcaster.subscribe(slow, Set.of(), null);
+        broadcaster.subscribe(fast, Set.of(), null);
+
+        for (int id = 1; id <= 5; id++) {
+            broadcaster.broadcast(ProductChangeEvent.deleted((long) id));
+            fast.awaitFrames(id);
+        }
+
+        assertThat(fast.awaitFrames(5)).hasSize(5);
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void blockedWrites_AreDisconnectedAfterSendTimeout_AndFreeTheSenders() throws Exception {
+        broadcaster = new ProductChangeBroadcaster(new ObjectMapper().findAndRegisterModules(), 16, 100,
+                ProductChangeBroadcaster.OverflowPolicy.DROP, Duration.ofMinutes(1), Duration.ofMinutes(1), 2,
+                Duration.ofMillis(200));
+        // As many clients that stop reading as there are sender threads
+        BlockingEmitter stuck1 = new BlockingEmitter();
+        BlockingEmitter stuck2 = new BlockingEmitter();
+        broadcaster.subscribe(stuck1, Set.of(), null);
+        broadcaster.subscribe(stuck2, Set.of(), null);
+
+        broadcaster.broadcast(ProductChangeEvent.deleted(1L));
+        assertThat(stuck1.sending.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stuck2.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        RecordingEmitter reader = new RecordingEmitter();
+        broadcaster.subscribe(reader, Set.of(), null);
+        broadcaster.broadcast(ProductChangeEvent.deleted(2L));
+
+        assertThat(reader.awaitFrames(1).get(0)).contains("\"productId\":2");
+        assertThat(stuck1.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stuck2.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    private ProductChangeBroadcaster broadcaster(int bufferSize, ProductChangeBroadcaster.OverflowPolicy policy) {
+        return new ProductChangeBroadcaster(new ObjectMapper().findAndRegisterModules(), bufferSize, 100, policy,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 2, Duration.ofSeconds(10));
+    }
+
+    private static ProductDto product(Long id, String category) {
+        return ProductDto.builder()
+                .id(id)
+                .name("Product " + id)
+                .price(new BigDecimal("9.99"))
+                .quantity(10)
+                .category(category)
+                .version(0L)
+                .build();
+    }
+
+    private static String eventId(String frame) {
+        Matcher matcher = EVENT_ID.matcher(frame);
+        assertThat(matcher.find()).isTrue();
+        return matcher.group(1);
+    }
+
+    /**
+     * A client that never reads: every write blocks until the sending thread is interrupted.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            sending.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                throw new IOException("Write interrupted", e);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            frames.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        List<String> awaitFrames(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (frames.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(frames).hasSizeGreaterThanOrEqualTo(count);
+            return List.copyOf(frames);
+        }
+    }
+}